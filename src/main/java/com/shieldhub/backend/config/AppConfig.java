@@ -1,14 +1,61 @@
 package com.shieldhub.backend.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class AppConfig {
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @Value("${app.flask.client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${app.flask.client.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.flask.client.read-timeout-ms:120000}")
+    private long readTimeoutMs;
+
+    @Value("${app.flask.client.pool-acquire-timeout-ms:5000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${app.flask.client.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    // Flask 스캐너 전용 HTTP 클라이언트 (커넥션 풀 + keep-alive + 타임아웃)
+    // 자동 재시도는 끔: /api/analyze는 멱등하지 않고, 재시도 정책은 ScannerClient의 서킷 브레이커 / hedging이 담당
+    // (기본 재시도 전략은 503/429를 1초 뒤 다시 보내 서킷 브레이커에 보이지 않고 제한 시간도 소모함)
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient scannerHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .evictExpiredConnections()
+                .disableAutomaticRetries()
+                .build();
     }
-}
\ No newline at end of file
+}
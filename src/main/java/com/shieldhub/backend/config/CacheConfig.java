@@ -0,0 +1,76 @@
+package com.shieldhub.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 캐시 설정
+ * - 애플리케이션 캐시(Spring Cache): Caffeine, 캐시마다 최대 크기 / TTL 지정
+ * - 엔티티 2차 캐시(Hibernate): Caffeine JCache, 영역별 크기 / TTL은 application.conf
+ * 둘 다 통계를 기록해 actuator 메트릭(cache.gets{result=hit|miss}, cache.evictions 등)으로 노출한다.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // JWT 인증 시 사용자 조회 결과 (비밀번호 변경 / 재설정 / 탈퇴 시 제거)
+    public static final String USER_DETAILS = "userDetails";
+
+    @Value("${app.cache.user-details.max-size:10000}")
+    private long userDetailsMaxSize;
+
+    @Value("${app.cache.user-details.ttl-seconds:60}")
+    private long userDetailsTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // 등록하지 않은 이름의 캐시는 만들지 않음 (크기 / TTL 없는 캐시 방지)
+        cacheManager.setCacheNames(List.of());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(USER_DETAILS, Caffeine.newBuilder()
+                .maximumSize(userDetailsMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(userDetailsTtlSeconds))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    // Hibernate 2차 캐시가 사용할 JCache CacheManager (메트릭 등록을 위해 직접 생성해 전달)
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(javax.cache.CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // 2차 캐시 영역은 EntityManagerFactory 초기화 때 만들어지므로 시작 완료 후 메트릭 등록
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> hibernateCacheMetrics(javax.cache.CacheManager hibernateCacheManager,
+                                                                            MeterRegistry meterRegistry) {
+        return event -> {
+            for (String name : hibernateCacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(meterRegistry, hibernateCacheManager.getCache(name));
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.shieldhub.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 읽기 전용 트랜잭션용 DataSource
+ * 복제본이 사용 가능하면 복제본, 아니면(지연 초과 / 접속 실패) primary 커넥션을 돌려준다.
+ */
+public class ReplicaFallbackDataSource extends AbstractDataSource {
+
+    private final DataSource replicaDataSource;
+    private final DataSource primaryDataSource;
+    private final ReplicaLagMonitor lagMonitor;
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaFallbackDataSource(DataSource replicaDataSource, DataSource primaryDataSource,
+                                     ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.replicaDataSource = replicaDataSource;
+        this.primaryDataSource = primaryDataSource;
+        this.lagMonitor = lagMonitor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (lagMonitor.isAvailable()) {
+            try {
+                Connection connection = replicaDataSource.getConnection();
+                meterRegistry.counter("datasource.read.routing", "target", "replica").increment();
+                return connection;
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+            }
+        }
+        meterRegistry.counter("datasource.read.routing", "target", "primary").increment();
+        return primaryDataSource.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (lagMonitor.isAvailable()) {
+            try {
+                return replicaDataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+            }
+        }
+        return primaryDataSource.getConnection(username, password);
+    }
+}
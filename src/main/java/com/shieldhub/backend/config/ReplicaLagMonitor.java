@@ -0,0 +1,84 @@
+package com.shieldhub.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 읽기 복제본 상태 확인 (SHOW REPLICA STATUS의 Seconds_Behind_Source)
+ * 지연이 max-lag-seconds를 넘거나, 복제가 멈췄거나, 접속이 안 되면 사용 불가로 표시해
+ * 읽기 전용 트랜잭션도 primary로 보낸다.
+ * 복제 상태가 비어 있는 인스턴스(로컬 테스트용 독립 DB 등)는 지연 0으로 본다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replicaDataSource;
+    private final long maxLagSeconds;
+
+    private volatile boolean available;
+    private volatile long lagSeconds = -1;
+    private boolean warnedNoReplicationStatus;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("datasource.replica.lag.seconds", this, m -> m.lagSeconds).register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, m -> m.available ? 1 : 0).register(meterRegistry);
+        check();
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    // 복제본 접속 실패 시 즉시 사용 중단 (다음 확인에서 회복되면 다시 사용)
+    public void markUnavailable(SQLException cause) {
+        if (available) {
+            log.warn("읽기 복제본 접속 실패, primary로 전환: {}", cause.getMessage());
+        }
+        available = false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public synchronized void check() {
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                if (!warnedNoReplicationStatus) {
+                    log.warn("읽기 복제본에 복제 상태가 없어 지연 0으로 간주 (독립 인스턴스)");
+                    warnedNoReplicationStatus = true;
+                }
+                update(0);
+                return;
+            }
+            long lag = rs.getLong("Seconds_Behind_Source");
+            // NULL = 복제 스레드가 멈춤
+            update(rs.wasNull() ? -1 : lag);
+        } catch (SQLException e) {
+            markUnavailable(e);
+            lagSeconds = -1;
+        }
+    }
+
+    private void update(long lag) {
+        lagSeconds = lag;
+        boolean healthy = lag >= 0 && lag <= maxLagSeconds;
+        if (healthy != available) {
+            if (healthy) {
+                log.info("읽기 복제본 사용 재개 (지연 {}초)", lag);
+            } else {
+                log.warn("읽기 복제본 지연 {}초 (허용 {}초), primary로 전환", lag, maxLagSeconds);
+            }
+        }
+        available = healthy;
+    }
+}
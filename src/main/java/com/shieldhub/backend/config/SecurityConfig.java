@@ -1,8 +1,12 @@
 package com.shieldhub.backend.config;
 
 
+import com.shieldhub.backend.service.IdempotencyService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod; // [추가] HttpMethod 사용을 위해 필요
@@ -28,11 +32,18 @@ import java.util.Arrays;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    // actuator(메트릭 / 캐시 조회·삭제) 접근 역할 (app.security.admin-usernames에 등록된 사용자)
+    public static final String ADMIN_ROLE = "ADMIN";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Value("${FRONTEND_URL:http://localhost:3000}")
     private String frontendUrl;
 
+    // BCrypt cost factor (변경 시 기존 해시는 로그인 시점에 자동 업그레이드)
+    @Value("${app.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -50,8 +61,15 @@ public class SecurityConfig {
                         // [중요] Preflight 요청(OPTIONS 메서드)은 인증 없이 모두 허용해야 CORS가 터지지 않음
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
+                        // SSE 등 비동기 응답의 ASYNC 디스패치는 최초 요청에서 이미 인증됨
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         .requestMatchers("/health").permitAll()
 
+                        // actuator: 헬스 체크만 공개, 메트릭 / 캐시(DELETE 포함)는 관리자만
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole(ADMIN_ROLE)
+
                         // 로그인, 회원가입 등 인증 불필요 경로
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/auth/**").permitAll() // 혹시 모를 구형 경로 호환
@@ -62,6 +80,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/otp/**").authenticated()
                         .requestMatchers("/api/files/**").authenticated()
                         .requestMatchers("/api/analysis/**").authenticated()
+                        .requestMatchers("/api/stats/**").authenticated()
 
                         // 그 외 모든 요청은 인증 필요
                         .anyRequest().authenticated()
@@ -91,6 +110,9 @@ public class SecurityConfig {
         // 허용할 헤더
         configuration.setAllowedHeaders(Arrays.asList("*"));
 
+        // 브라우저에서 읽을 수 있도록 노출할 응답 헤더
+        configuration.setExposedHeaders(Arrays.asList(IdempotencyService.REPLAYED_HEADER));
+
         // 인증 정보(쿠키, Authorization 헤더 등) 포함 허용
         configuration.setAllowCredentials(true);
 
@@ -101,7 +123,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
 
@@ -1,19 +1,39 @@
 package com.shieldhub.backend.controller;
 
 import com.shieldhub.backend.dto.request.AnalysisRequest;
-import com.shieldhub.backend.dto.response.FlaskAnalysisResponse;
+import com.shieldhub.backend.dto.request.BulkAnalysisRequest;
+import com.shieldhub.backend.entity.AnalysisResults;
+import com.shieldhub.backend.entity.User;
+import com.shieldhub.backend.exception.IdempotencyConflictException;
+import com.shieldhub.backend.exception.TooManyRequestsException;
+import com.shieldhub.backend.repository.AnalysisResultsRepository;
+import com.shieldhub.backend.repository.UserRepository;
+import com.shieldhub.backend.service.AnalysisEventService;
 import com.shieldhub.backend.service.AnalysisService;
+import com.shieldhub.backend.service.BulkAnalysisService;
+import com.shieldhub.backend.service.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/analysis")
@@ -21,18 +41,53 @@ import java.util.Map;
 public class AnalysisController {
 
     private final AnalysisService analysisService;
+    private final AnalysisEventService analysisEventService;
+    private final BulkAnalysisService bulkAnalysisService;
+    private final IdempotencyService idempotencyService;
+    private final AnalysisResultsRepository analysisResultsRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @PostMapping("/start")
     public ResponseEntity<?> startAnalysis(
             @Valid @RequestBody AnalysisRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
 
         try {
             String username = authentication.getName(); // 인증된 사용자
-            FlaskAnalysisResponse result = analysisService.startAnalysis(request.getUrl(), username);
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다"));
 
-            // Flask의 응답을 React에 그대로 전달
-            return ResponseEntity.ok(result);
+            // 같은 Idempotency-Key 재시도는 분석을 새로 등록하지 않고 처음 등록한 분석 ID로 응답
+            IdempotencyService.Outcome<Map<String, Object>> outcome = idempotencyService.execute(
+                    "analysis.start", user.getUserId(), idempotencyKey, request.getUrl(),
+                    () -> {
+                        AnalysisResults analysis = analysisService.submitAnalysis(request.getUrl(), username);
+
+                        // 분석은 백그라운드에서 진행되므로 ID만 즉시 반환 (결과는 /api/analysis/{id}로 조회)
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("success", true);
+                        response.put("analysisId", analysis.getAnalysisId());
+                        response.put("status", analysis.getStatus());
+                        return response;
+                    });
+            return ResponseEntity.accepted()
+                    .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                    .body(outcome.value());
+
+        } catch (IdempotencyConflictException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(e.isInProgress() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(errorResponse);
+
+        } catch (TooManyRequestsException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
 
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -41,4 +96,86 @@ public class AnalysisController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    // 대량 URL 분석 (JSON 목록) - URL마다 작업 등록 후 끝나는 순서대로 NDJSON 한 줄씩 응답
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkAnalysis(
+            @Valid @RequestBody BulkAnalysisRequest request,
+            Authentication authentication) {
+        List<String> urls;
+        try {
+            urls = bulkAnalysisService.normalizeUrls(request.getUrls());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return startBulk(urls, authentication);
+    }
+
+    // 대량 URL 분석 (텍스트 파일 업로드, 한 줄에 URL 하나)
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkAnalysisFile(
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication) {
+        List<String> urls;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            urls = bulkAnalysisService.readUrls(reader);
+        } catch (IOException | UncheckedIOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "파일을 읽을 수 없습니다");
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return startBulk(urls, authentication);
+    }
+
+    // URL마다 분석 작업을 등록한 뒤 진행 상황을 스트리밍 (연결이 끊겨도 작업은 계속 진행)
+    private ResponseEntity<StreamingResponseBody> startBulk(List<String> urls, Authentication authentication) {
+        User user = findUser(authentication);
+        List<Integer> analysisIds;
+        try {
+            analysisIds = bulkAnalysisService.submit(user.getUserId(), urls);
+        } catch (TooManyRequestsException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bulkAnalysisService.stream(analysisIds));
+    }
+
+    // 특정 분석의 상태 변경 실시간 구독 (SSE, 완료/실패 시 종료)
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeAnalysis(@PathVariable Integer id, Authentication authentication) {
+        User user = findUser(authentication);
+        // /start 직후 구독하면 복제본에 아직 없을 수 있으므로 primary에서 다시 확인
+        AnalysisResults analysis = analysisResultsRepository.findById(id)
+                .or(() -> transactionTemplate.execute(status -> analysisResultsRepository.findById(id)))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Scan not found: " + id));
+
+        if (!analysis.getUserId().equals(user.getUserId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "분석 결과에 접근할 권한이 없습니다");
+        }
+        // 구독 등록 후 최신 상태는 primary에서 다시 읽음 (조회~등록 사이에 끝난 분석도 종료 이벤트를 받도록)
+        return subscribe(() -> analysisEventService.subscribeAnalysis(analysis,
+                () -> transactionTemplate.execute(status -> analysisResultsRepository.findById(id).orElse(null))));
+    }
+
+    // 내 모든 분석의 상태 변경 실시간 구독 (SSE)
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeMyAnalyses(Authentication authentication) {
+        User user = findUser(authentication);
+        return subscribe(() -> analysisEventService.subscribeUser(user.getUserId()));
+    }
+
+    private SseEmitter subscribe(Supplier<SseEmitter> subscription) {
+        try {
+            return subscription.get();
+        } catch (TooManyRequestsException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
+    }
+
+    private User findUser(Authentication authentication) {
+        return userRepository.findByUsername(authentication.getName())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "사용자를 찾을 수 없습니다"));
+    }
+}
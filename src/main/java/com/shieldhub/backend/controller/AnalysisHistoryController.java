@@ -4,12 +4,21 @@ import com.shieldhub.backend.entity.AnalysisResults;
 import com.shieldhub.backend.entity.AnalysisVulnerabilities;
 import com.shieldhub.backend.repository.AnalysisResultsRepository;
 import com.shieldhub.backend.repository.AnalysisVulnerabilitiesRepository;
-import com.shieldhub.backend.repository.VulnerabilitiesRepository;
+import com.shieldhub.backend.repository.UserRepository;
+import com.shieldhub.backend.entity.User;
+import com.shieldhub.backend.entity.Vulnerabilities;
+import com.shieldhub.backend.service.AnalysisSearchService;
+import com.shieldhub.backend.service.VulnerabilityDictionary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,25 +28,59 @@ import java.util.stream.Collectors;
 public class AnalysisHistoryController {
     private final AnalysisResultsRepository analysisResultsRepository;
     private final AnalysisVulnerabilitiesRepository analysisVulnerabilitiesRepository;
-    private final VulnerabilitiesRepository vulnerabilitiesRepository;
+    private final VulnerabilityDictionary vulnerabilityDictionary;
+    private final UserRepository userRepository;
+    private final AnalysisSearchService analysisSearchService;
+    // 쓰기 트랜잭션 = primary 조회 (읽기 복제본에 아직 반영되지 않은 행 확인용)
+    private final TransactionTemplate transactionTemplate;
 
-    // 분석 이력 목록 조회 (페이징)
+    // 정렬 가능한 컬럼 (user_id, analysis_date, analysis_id 인덱스로 처리 가능한 것만)
+    private static final Set<String> SORTABLE_KEYS = Set.of("analysisDate", "analysisId");
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 내 분석 이력 목록 조회 (커서 기반 페이징)
     @GetMapping
     public ResponseEntity<?> list(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "analysisDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String direction) {
-        Sort sort = "asc".equalsIgnoreCase(direction) ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<AnalysisResults> p = analysisResultsRepository.findAll(pageable);
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            Authentication authentication) {
+        if (!SORTABLE_KEYS.contains(sortBy)) {
+            return badRequest("정렬 기준은 " + SORTABLE_KEYS + " 중 하나여야 합니다");
+        }
+        Optional<User> user = userRepository.findByUsername(authentication.getName());
+        if (user.isEmpty()) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "사용자를 찾을 수 없습니다"));
+        }
+
+        Sort.Direction dir = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = "analysisId".equals(sortBy)
+                ? Sort.by(dir, "analysisId")
+                : Sort.by(dir, "analysisDate").and(Sort.by(dir, "analysisId"));
+
+        ScrollPosition position;
+        try {
+            position = decodeCursor(cursor, sortBy);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return badRequest("잘못된 커서입니다");
+        }
+
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Integer userId = user.get().getUserId();
+        Window<AnalysisResults> window = analysisResultsRepository.findByUserId(userId, position, sort, Limit.of(limit));
 
         Map<String, Object> resp = new HashMap<>();
-        resp.put("page", p.getNumber());
-        resp.put("size", p.getSize());
-        resp.put("totalElements", p.getTotalElements());
-        resp.put("totalPages", p.getTotalPages());
-        resp.put("items", p.stream().map(ar -> {
+        resp.put("size", limit);
+        resp.put("hasNext", window.hasNext());
+        resp.put("nextCursor", window.hasNext() && !window.isEmpty()
+                ? encodeCursor(window.getContent().get(window.size() - 1), sortBy)
+                : null);
+        if (withTotal) {
+            resp.put("totalElements", analysisResultsRepository.countByUserId(userId));
+        }
+        resp.put("items", window.stream().map(ar -> {
             Map<String, Object> m = new HashMap<>();
             m.put("id", ar.getAnalysisId());
             m.put("targetUrl", ar.getUrlToAnalyze());
@@ -50,10 +93,93 @@ public class AnalysisHistoryController {
         return ResponseEntity.ok(resp);
     }
 
+    // 내 분석 이력 검색 (도메인 / URL 접두어 / 취약점 유형, analysis_id 역순 커서 페이징)
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam(required = false) String domain,
+            @RequestParam(defaultValue = "true") boolean includeSubdomains,
+            @RequestParam(required = false) String urlPrefix,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        if (isBlank(domain) && isBlank(urlPrefix) && isBlank(type)) {
+            return badRequest("domain, urlPrefix, type 중 하나 이상을 지정해야 합니다");
+        }
+        Optional<User> user = userRepository.findByUsername(authentication.getName());
+        if (user.isEmpty()) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "사용자를 찾을 수 없습니다"));
+        }
+
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<AnalysisResults> found = analysisSearchService.search(user.get().getUserId(),
+                domain, includeSubdomains, urlPrefix, type, cursor, limit + 1);
+        boolean hasNext = found.size() > limit;
+        List<AnalysisResults> page = hasNext ? found.subList(0, limit) : found;
+
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("size", limit);
+        resp.put("hasNext", hasNext);
+        resp.put("nextCursor", hasNext ? page.get(page.size() - 1).getAnalysisId() : null);
+        resp.put("items", page.stream().map(ar -> {
+            Map<String, Object> m = new HashMap<>();
+            m.put("id", ar.getAnalysisId());
+            m.put("targetUrl", ar.getUrlToAnalyze());
+            m.put("status", ar.getStatus());
+            m.put("startedAt", ar.getAnalysisDate());
+            m.put("finishedAt", ar.getCompletionDate());
+            m.put("errorMessage", ar.getErrorMessage());
+            return m;
+        }).collect(Collectors.toList()));
+        return ResponseEntity.ok(resp);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // 커서 = 마지막 항목의 정렬 키 (Base64URL)
+    private String encodeCursor(AnalysisResults last, String sortBy) {
+        String raw = "analysisId".equals(sortBy)
+                ? String.valueOf(last.getAnalysisId())
+                : last.getAnalysisDate() + "|" + last.getAnalysisId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ScrollPosition decodeCursor(String cursor, String sortBy) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if ("analysisId".equals(sortBy)) {
+            keys.put("analysisId", Integer.valueOf(raw));
+        } else {
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("cursor");
+            }
+            keys.put("analysisDate", LocalDateTime.parse(parts[0]));
+            keys.put("analysisId", Integer.valueOf(parts[1]));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private ResponseEntity<?> badRequest(String message) {
+        return ResponseEntity.badRequest().body(Map.of("success", false, "message", message));
+    }
+
     // 분석 이력 상세 조회
     @GetMapping("/{id}")
     public ResponseEntity<?> detail(@PathVariable Integer id) {
         Optional<AnalysisResults> opt = analysisResultsRepository.findById(id);
+        // /start 직후라 복제본에 아직 없을 수 있으므로 primary에서 다시 확인하고, 그 경우 취약점 매핑도 primary에서 읽음
+        // (복제본에서 찾은 경우 상태는 최대 max-lag-seconds만큼 늦을 수 있음)
+        boolean readFromPrimary = false;
+        if (opt.isEmpty()) {
+            opt = transactionTemplate.execute(status -> analysisResultsRepository.findById(id));
+            readFromPrimary = true;
+        }
         if (opt.isEmpty()) {
             return ResponseEntity.status(404).body(Map.of(
                     "timestamp", new Date(),
@@ -72,19 +198,24 @@ public class AnalysisHistoryController {
         dto.put("finishedAt", ar.getCompletionDate());
         dto.put("errorMessage", ar.getErrorMessage());
 
-        // 연관 취약점 조회
-        List<AnalysisVulnerabilities> relations = analysisVulnerabilitiesRepository.findByIdAnalysisId(ar.getAnalysisId());
+        // 연관 취약점 조회 (매핑 1회 조회 + 취약점 정보는 사전 캐시에서 일괄 조회)
+        List<AnalysisVulnerabilities> relations = readFromPrimary
+                ? transactionTemplate.execute(status -> analysisVulnerabilitiesRepository.findByIdAnalysisId(ar.getAnalysisId()))
+                : analysisVulnerabilitiesRepository.findByIdAnalysisId(ar.getAnalysisId());
+        Map<Integer, Vulnerabilities> catalog = vulnerabilityDictionary.findAllById(
+                relations.stream().map(rel -> rel.getId().getVulnerabilityId()).collect(Collectors.toSet()));
         List<Map<String, Object>> vulns = relations.stream().map(rel -> {
             Integer vulnId = rel.getId().getVulnerabilityId();
             Map<String, Object> vm = new HashMap<>();
             vm.put("vulnerabilityId", vulnId);
             vm.put("detectionContext", rel.getDetectionContext());
-            vulnerabilitiesRepository.findById(vulnId).ifPresent(v -> {
+            Vulnerabilities v = catalog.get(vulnId);
+            if (v != null) {
                 vm.put("type", v.getVulnerabilityType());
                 vm.put("severity", v.getSeverity());
                 vm.put("pattern", v.getDetectedPattern());
                 vm.put("details", v.getDetails());
-            });
+            }
             return vm;
         }).collect(Collectors.toList());
         dto.put("vulnerabilities", vulns);
@@ -6,10 +6,15 @@ import com.shieldhub.backend.dto.request.ChangePasswordRequest;
 import com.shieldhub.backend.dto.request.LoginWithOtpRequest;  // 이 줄 추가
 import com.shieldhub.backend.dto.response.LoginResponse;
 import com.shieldhub.backend.entity.User;
+import com.shieldhub.backend.exception.TooManyRequestsException;
 import com.shieldhub.backend.repository.UserRepository;  // 이 줄도 추가 (check-otp 엔드포인트에 필요)
+import com.shieldhub.backend.service.AccountAvailabilityService;
 import com.shieldhub.backend.service.AuthService;
+import com.shieldhub.backend.service.LoginRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
@@ -25,17 +30,42 @@ public class AuthController {
 
     private final AuthService authService;
     private final UserRepository userRepository;
+    private final LoginRateLimiter loginRateLimiter;
+    private final AccountAvailabilityService accountAvailabilityService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+        User user = authService.register(request);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "회원가입이 완료되었습니다");
+        response.put("userId", user.getUserId());
+        response.put("username", user.getUsername());
+
+        return ResponseEntity.ok(response);
+    }
+
+    // 사용자명/이메일 사용 가능 여부 확인 (회원가입 폼 실시간 검사용)
+    @GetMapping("/check-availability")
+    public ResponseEntity<?> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
         try {
-            User user = authService.register(request);
+            if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+                throw new RuntimeException("사용자명 또는 이메일을 입력해주세요.");
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "회원가입이 완료되었습니다");
-            response.put("userId", user.getUserId());
-            response.put("username", user.getUsername());
+            if (username != null && !username.isBlank()) {
+                response.put("username", username);
+                response.put("usernameAvailable", accountAvailabilityService.isUsernameAvailable(username));
+            }
+            if (email != null && !email.isBlank()) {
+                response.put("email", email);
+                response.put("emailAvailable", accountAvailabilityService.isEmailAvailable(email));
+            }
 
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
@@ -68,17 +98,11 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
-        try {
-            LoginResponse response = authService.login(request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
-
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // DB 조회/BCrypt 검증 전에 시도 횟수 제한
+        loginRateLimiter.checkLoginAttempt(request.getUsername(), httpRequest);
+        LoginResponse response = authService.login(request);
+        return ResponseEntity.ok(response);
     }
 
     // 로그아웃 (클라이언트에서 토큰 삭제하면 됨)
@@ -109,44 +133,28 @@ public class AuthController {
     public ResponseEntity<?> changePassword(
             @Valid @RequestBody ChangePasswordRequest request,
             Authentication authentication) {
-        try {
-            String username = authentication.getName();
-            authService.changePassword(username, request.getCurrentPassword(), request.getNewPassword());
+        String username = authentication.getName();
+        authService.changePassword(username, request.getCurrentPassword(), request.getNewPassword());
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "비밀번호가 변경되었습니다");
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "비밀번호가 변경되었습니다");
 
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+        return ResponseEntity.ok(response);
     }
 
     // 비밀번호 재설정 (임시 비밀번호 발급)
     @PostMapping("/reset-password")
     public ResponseEntity<?> resetPassword(@RequestBody Map<String, String> request) {
-        try {
-            String email = request.get("email");
-            String tempPassword = authService.resetPassword(email);
+        String email = request.get("email");
+        String tempPassword = authService.resetPassword(email);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "임시 비밀번호가 이메일로 발송되었습니다");
-            response.put("tempPassword", tempPassword); // 개발용 (실제론 삭제)
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "임시 비밀번호가 이메일로 발송되었습니다");
+        response.put("tempPassword", tempPassword); // 개발용 (실제론 삭제)
 
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+        return ResponseEntity.ok(response);
     }
 
     // 회원 탈퇴
@@ -154,38 +162,23 @@ public class AuthController {
     public ResponseEntity<?> deleteAccount(
             @RequestBody Map<String, String> request,
             Authentication authentication) {
-        try {
-            String username = authentication.getName();
-            String password = request.get("password");
-
-            authService.deleteUser(username, password);
+        String username = authentication.getName();
+        String password = request.get("password");
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "회원 탈퇴가 완료되었습니다");
+        authService.deleteUser(username, password);
 
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "회원 탈퇴가 완료되었습니다");
 
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/login-with-otp")
-    public ResponseEntity<?> loginWithOtp(@Valid @RequestBody LoginWithOtpRequest request) {
-        try {
-            LoginResponse response = authService.loginWithOtp(request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
-
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+    public ResponseEntity<?> loginWithOtp(@Valid @RequestBody LoginWithOtpRequest request, HttpServletRequest httpRequest) {
+        loginRateLimiter.checkLoginAttempt(request.getUsername(), httpRequest);
+        LoginResponse response = authService.loginWithOtp(request);
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -212,4 +205,23 @@ public class AuthController {
         }
     }
 
-}
\ No newline at end of file
+    // 로그인 시도 제한 / 해싱 대기열 초과
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<?> handleTooManyRequests(TooManyRequestsException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
+    }
+
+    // 그 밖의 실패 (중복 가입, 비밀번호 불일치 등)
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<?> handleBadRequest(RuntimeException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", e.getMessage());
+
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
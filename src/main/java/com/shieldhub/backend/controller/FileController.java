@@ -2,12 +2,16 @@ package com.shieldhub.backend.controller;
 
 import com.shieldhub.backend.entity.FileMetadata;
 import com.shieldhub.backend.entity.User;
+import com.shieldhub.backend.exception.IdempotencyConflictException;
+import com.shieldhub.backend.exception.TooManyRequestsException;
 import com.shieldhub.backend.repository.FileMetadataRepository;
 import com.shieldhub.backend.repository.UserRepository;
 import com.shieldhub.backend.service.FileEncryptionService;
+import com.shieldhub.backend.service.IdempotencyService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -16,6 +20,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,25 +35,49 @@ public class FileController {
     private final FileEncryptionService fileEncryptionService;
     private final FileMetadataRepository fileMetadataRepository;
     private final UserRepository userRepository;
+    private final IdempotencyService idempotencyService;
 
     // 1. 파일 업로드 및 암호화
     @PostMapping("/encrypt")
     public ResponseEntity<?> encryptFile(
             @RequestParam("file") MultipartFile file,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         try {
             String username = authentication.getName();
             User user = userRepository.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다"));
 
-            Map<String, Object> result = fileEncryptionService.encryptAndSaveFile(file, user.getUserId());
+            // 같은 Idempotency-Key 재시도는 다시 암호화하지 않고 처음 결과로 응답
+            // 요청 내용 비교는 파일 내용의 SHA-256으로 (이름/크기만 같은 다른 파일이 이전 결과를 받지 않도록)
+            byte[] fileData = file.getBytes();
+            String sha256Hash = fileEncryptionService.sha256(fileData);
+            byte[][] freshEncryptedFile = new byte[1][];
+            IdempotencyService.Outcome<Map<String, Object>> outcome = idempotencyService.execute(
+                    "files.encrypt", user.getUserId(), idempotencyKey, sha256Hash,
+                    () -> {
+                        try {
+                            Map<String, Object> encrypted = fileEncryptionService.encryptAndSaveFile(
+                                    file, fileData, sha256Hash, user.getUserId());
+                            // 암호화된 바이너리는 보관하지 않음 (재시도 시 저장된 .enc 파일에서 읽음)
+                            freshEncryptedFile[0] = (byte[]) encrypted.remove("encryptedFile");
+                            encrypted.put("originalFileName", file.getOriginalFilename());
+                            encrypted.put("uploadDate", LocalDateTime.now());
+                            return encrypted;
+                        } catch (Exception e) {
+                            throw new RuntimeException(e.getMessage(), e);
+                        }
+                    });
+            Map<String, Object> result = outcome.value();
 
             // ZIP 파일 생성
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             ZipOutputStream zos = new ZipOutputStream(baos);
 
             // 1. 암호화된 파일 추가 (.enc)
-            byte[] encryptedFileBytes = (byte[]) result.get("encryptedFile");
+            byte[] encryptedFileBytes = outcome.replayed()
+                    ? fileEncryptionService.readEncryptedFile(((Number) result.get("fileId")).intValue())
+                    : freshEncryptedFile[0];
             String fileName = (String) result.get("fileName"); // "UUID.enc"
 
             ZipEntry fileEntry = new ZipEntry(fileName);
@@ -74,11 +103,11 @@ public class FileController {
                             "File ID: %s\n" +
                             "SHA-256 Hash: %s\n" +
                             "Upload Date: %s\n",
-                    file.getOriginalFilename(),
+                    result.get("originalFileName"),
                     fileName,
                     result.get("fileId"),
                     result.get("sha256Hash"),
-                    java.time.LocalDateTime.now()
+                    result.get("uploadDate")
             );
 
             ZipEntry infoEntry = new ZipEntry("info.txt");
@@ -94,10 +123,24 @@ public class FileController {
 
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"secure_package.zip\"")
+                    .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(outcome.replayed()))
                     .contentType(MediaType.APPLICATION_OCTET_STREAM)
                     .contentLength(zipBytes.length)
                     .body(resource);
 
+        } catch (IdempotencyConflictException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(e.isInProgress() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(errorResponse);
+
+        } catch (TooManyRequestsException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
+
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
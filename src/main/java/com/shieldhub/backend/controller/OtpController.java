@@ -5,13 +5,19 @@ import com.shieldhub.backend.dto.response.OtpSetupResponse;
 import com.shieldhub.backend.entity.User;  // 이 import 추가
 import com.shieldhub.backend.repository.UserRepository;  // 이 import 추가
 import com.shieldhub.backend.service.AuthService;
+import com.shieldhub.backend.service.OtpService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/otp")
@@ -25,10 +31,12 @@ public class OtpController {
      * OTP 설정 시작 (QR 코드 생성)
      */
     @PostMapping("/setup")
-    public ResponseEntity<?> setupOtp(Authentication authentication) {
+    public ResponseEntity<?> setupOtp(
+            @RequestParam(defaultValue = "true") boolean inlineImage,
+            Authentication authentication) {
         try {
             String username = authentication.getName();
-            OtpSetupResponse response = authService.setupOtp(username);
+            OtpSetupResponse response = authService.setupOtp(username, inlineImage);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -40,6 +48,41 @@ public class OtpController {
         }
     }
 
+    /**
+     * OTP 설정용 QR 코드 이미지 (format: png | svg)
+     */
+    @GetMapping("/qr-code")
+    public ResponseEntity<?> getQrCode(
+            @RequestParam(defaultValue = "png") String format,
+            Authentication authentication,
+            WebRequest webRequest) {
+        try {
+            String username = authentication.getName();
+            OtpService.QrCodeFormat qrCodeFormat = OtpService.QrCodeFormat.valueOf(format.toUpperCase());
+            byte[] image = authService.getOtpQrCode(username, qrCodeFormat);
+
+            // 같은 비밀키의 이미지는 변하지 않으므로 ETag로 재전송 생략
+            String eTag = "\"" + DigestUtils.md5DigestAsHex(image) + "\"";
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePrivate().noTransform())
+                    .eTag(eTag)
+                    .contentType(qrCodeFormat == OtpService.QrCodeFormat.SVG
+                            ? MediaType.valueOf("image/svg+xml")
+                            : MediaType.IMAGE_PNG)
+                    .body(image);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(errorResponse);
+        }
+    }
+
     /**
      * OTP 활성화 (코드 검증 후)
      */
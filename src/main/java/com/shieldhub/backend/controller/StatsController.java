@@ -0,0 +1,36 @@
+package com.shieldhub.backend.controller;
+
+import com.shieldhub.backend.entity.User;
+import com.shieldhub.backend.repository.UserRepository;
+import com.shieldhub.backend.service.VulnerabilityStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final VulnerabilityStatsService vulnerabilityStatsService;
+    private final UserRepository userRepository;
+
+    // 내 취약점 통계 (최근 days일, 심각도/유형/일자별)
+    @GetMapping("/vulnerabilities")
+    public ResponseEntity<?> vulnerabilityStats(
+            @RequestParam(defaultValue = "30") int days,
+            Authentication authentication) {
+        Optional<User> user = userRepository.findByUsername(authentication.getName());
+        if (user.isEmpty()) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "사용자를 찾을 수 없습니다"));
+        }
+        return ResponseEntity.ok(vulnerabilityStatsService.getStats(user.get().getUserId(), days));
+    }
+}
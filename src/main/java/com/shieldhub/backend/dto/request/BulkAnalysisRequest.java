@@ -0,0 +1,12 @@
+package com.shieldhub.backend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkAnalysisRequest {
+    @NotEmpty(message = "분석할 URL 목록은 필수입니다.")
+    private List<String> urls;
+}
@@ -8,5 +8,6 @@ import lombok.Data;
 public class OtpSetupResponse {
     private String secret;
     private String qrCodeUrl;
-    private String qrCodeImage;  // Base64 인코딩된 이미지
+    private String qrCodeImage;  // Base64 인코딩된 이미지 (inlineImage=false면 null)
+    private String qrCodeImageUrl;  // QR 코드 이미지 직접 조회 경로 (PNG/SVG)
 }
\ No newline at end of file
@@ -9,14 +9,29 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "AnalysisResults")
+@Table(name = "AnalysisResults", indexes = {
+        // 사용자별 분석 이력 키셋 페이지네이션
+        @Index(name = "idx_analysis_user_date_id", columnList = "user_id, analysis_date, analysis_id"),
+        // 대기 작업 우선순위/사용자별 공정 선점
+        @Index(name = "idx_analysis_status_priority_user_id", columnList = "analysis_status, priority, user_id, analysis_id"),
+        // 분석 이력 검색 (도메인 / URL 접두어)
+        @Index(name = "idx_analysis_user_host", columnList = "user_id, reversed_host"),
+        @Index(name = "idx_analysis_user_canonical_url", columnList = "user_id, canonical_url"),
+        // 검색 색인 보충 대상(reversed_host IS NULL) 조회
+        @Index(name = "idx_analysis_reversed_host", columnList = "reversed_host"),
+        // 보관 기간 정리
+        @Index(name = "idx_analysis_date", columnList = "analysis_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AnalysisResults {
 
+    // IDENTITY 대신 IdSequences 테이블에서 50개 단위로 미리 받아 씀 (INSERT를 JDBC 배치로 묶을 수 있음)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "analysis_results_id")
+    @TableGenerator(name = "analysis_results_id", table = "IdSequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "AnalysisResults", allocationSize = 50)
     @Column(name = "analysis_id")
     private Integer analysisId;
 
@@ -26,6 +41,14 @@ public class AnalysisResults {
     @Column(name = "url_to_analyze", nullable = false)
     private String urlToAnalyze;
 
+    // 정규화된 URL (결과 캐시 / 동일 URL 스캔 합치기용 키)
+    @Column(name = "canonical_url")
+    private String canonicalUrl;
+
+    // 호스트 레이블 역순 (www.example.com -> com.example.www.), 도메인/하위 도메인 검색용
+    @Column(name = "reversed_host")
+    private String reversedHost;
+
     @CreationTimestamp
     @Column(name = "analysis_date", nullable = false)
     private LocalDateTime analysisDate;
@@ -34,6 +57,18 @@ public class AnalysisResults {
     @Column(name = "analysis_status")
     private AnalysisStatus status;
 
+    // 작업 우선순위 (대량 분석 작업은 BULK: 워커의 별도 슬롯에서 실행하고 스캐너 슬롯도 단건 분석보다 뒤에 배정)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false)
+    private Priority priority = Priority.INTERACTIVE;
+
+    // 워커가 작업을 선점한 시각 (IN_PROGRESS 상태로 오래 머문 작업 복구용)
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "attempt_count")
+    private Integer attemptCount = 0;
+
     @Column(name = "completion_date")
     private LocalDateTime completionDate;
 
@@ -43,4 +78,8 @@ public class AnalysisResults {
     public enum AnalysisStatus {
         PENDING, IN_PROGRESS, COMPLETED, FAILED
     }
+
+    public enum Priority {
+        INTERACTIVE, BULK
+    }
 }
\ No newline at end of file
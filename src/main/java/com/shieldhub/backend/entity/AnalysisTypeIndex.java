@@ -0,0 +1,42 @@
+package com.shieldhub.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 취약점 유형 → 분석 역색인 (분석 완료 시 추가)
+ * "특정 유형이 발견된 내 분석" 검색을 PK 범위 조회로 처리한다.
+ */
+@Entity
+@Table(name = "AnalysisTypeIndex", indexes = {
+        // 보관 기간 정리 (analysis_id 기준 삭제)
+        @Index(name = "idx_type_index_analysis", columnList = "analysis_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisTypeIndex {
+
+    @EmbeddedId
+    private AnalysisTypeIndexId id;
+
+    // --- Embedded Primary Key Class ---
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AnalysisTypeIndexId implements Serializable {
+        @Column(name = "vulnerability_type")
+        private String vulnerabilityType;
+
+        @Column(name = "user_id")
+        private Integer userId;
+
+        @Column(name = "analysis_id")
+        private Integer analysisId;
+    }
+}
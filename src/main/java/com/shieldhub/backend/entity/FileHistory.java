@@ -4,19 +4,25 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "FileHistory")
+@Table(name = "FileHistory", indexes = {
+        // 보관 기간 정리
+        @Index(name = "idx_file_history_timestamp", columnList = "timestamp"),
+        // 파일별 이력
+        @Index(name = "idx_file_history_file", columnList = "file_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class FileHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "file_history_id")
+    @TableGenerator(name = "file_history_id", table = "IdSequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "FileHistory", allocationSize = 50)
     @Column(name = "history_id")
     private Integer historyId;
 
@@ -27,7 +33,7 @@ public class FileHistory {
     @Column(name = "action_type", nullable = false)
     private ActionType actionType;
 
-    @CreationTimestamp
+    // 이벤트 발생 시각 (FileAuditWriter가 나중에 모아 저장하므로 INSERT 시각이 아닌 요청 시각을 직접 설정)
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
 
@@ -9,14 +9,19 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "FileMetadata")
+@Table(name = "FileMetadata", indexes = {
+        // 내 파일 목록
+        @Index(name = "idx_file_metadata_user", columnList = "user_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class FileMetadata {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "file_metadata_id")
+    @TableGenerator(name = "file_metadata_id", table = "IdSequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "FileMetadata", allocationSize = 50)
     @Column(name = "file_id")
     private Integer fileId;
 
@@ -4,16 +4,27 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 @Entity
-@Table(name = "Vulnerabilities")
+@Immutable  // 한 번 저장된 취약점은 변경하지 않음 (VulnerabilityDictionary 캐시 전제)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
+@Table(name = "Vulnerabilities", uniqueConstraints = {
+        // 같은 (유형, 패턴)은 한 행만 (여러 서버가 동시에 추가하면 늦은 쪽은 제약 위반 후 기존 행을 조회)
+        @UniqueConstraint(name = "uk_vulnerabilities_type_pattern", columnNames = {"vulnerability_type", "detected_pattern"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Vulnerabilities {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "vulnerabilities_id")
+    @TableGenerator(name = "vulnerabilities_id", table = "IdSequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "Vulnerabilities", allocationSize = 50)
     @Column(name = "vulnerability_id")
     private Integer vulnerabilityId;
 
@@ -0,0 +1,46 @@
+package com.shieldhub.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 사용자/일자/취약점 유형/심각도별 발견 건수 집계 (분석 완료 시 증분 반영)
+ */
+@Entity
+@Table(name = "VulnerabilityStatsDaily")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VulnerabilityStatsDaily {
+
+    @EmbeddedId
+    private VulnerabilityStatsDailyId id;
+
+    @Column(name = "finding_count", nullable = false)
+    private Long findingCount;
+
+    // --- Embedded Primary Key Class ---
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VulnerabilityStatsDailyId implements Serializable {
+        @Column(name = "user_id")
+        private Integer userId;
+
+        @Column(name = "stat_date")
+        private LocalDate statDate;
+
+        @Column(name = "vulnerability_type")
+        private String vulnerabilityType;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "severity")
+        private Vulnerabilities.Severity severity;
+    }
+}
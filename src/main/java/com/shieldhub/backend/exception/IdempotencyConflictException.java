@@ -0,0 +1,20 @@
+package com.shieldhub.backend.exception;
+
+/**
+ * Idempotency-Key 충돌 시 발생
+ * - inProgress = true: 같은 키의 요청이 아직 처리 중 (HTTP 409로 응답)
+ * - inProgress = false: 같은 키가 다른 요청 내용으로 재사용됨 (HTTP 422로 응답)
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final boolean inProgress;
+
+    public IdempotencyConflictException(String message, boolean inProgress) {
+        super(message);
+        this.inProgress = inProgress;
+    }
+
+    public boolean isInProgress() {
+        return inProgress;
+    }
+}
@@ -0,0 +1,15 @@
+package com.shieldhub.backend.exception;
+
+/**
+ * Flask 스캐너를 사용할 수 없을 때 발생 (서킷 오픈, 동시 요청 한도 초과, 제한 시간 초과 등)
+ */
+public class ScannerUnavailableException extends RuntimeException {
+
+    public ScannerUnavailableException(String message) {
+        super(message);
+    }
+
+    public ScannerUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.shieldhub.backend.exception;
+
+/**
+ * 서버가 과부하 상태이거나 요청 한도를 초과했을 때 발생 (HTTP 429로 응답)
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,90 @@
 package com.shieldhub.backend.repository;
 
 import com.shieldhub.backend.entity.AnalysisResults;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface AnalysisResultsRepository extends JpaRepository<AnalysisResults, Integer> {
-}
\ No newline at end of file
+public interface AnalysisResultsRepository extends JpaRepository<AnalysisResults, Integer>,
+        JpaSpecificationExecutor<AnalysisResults> {
+
+    // 사용자별 분석 이력 (키셋 스크롤, OFFSET/COUNT 없음)
+    Window<AnalysisResults> findByUserId(Integer userId, ScrollPosition position, Sort sort, Limit limit);
+
+    long countByUserId(Integer userId);
+
+    // 검색 색인(reversed_host) 보충 대상
+    List<AnalysisResults> findByReversedHostIsNull(Limit limit);
+
+    // 같은 URL의 최근 완료된 분석 (결과 재사용)
+    Optional<AnalysisResults> findFirstByCanonicalUrlAndStatusAndCompletionDateAfterOrderByCompletionDateDesc(
+            String canonicalUrl, AnalysisResults.AnalysisStatus status, LocalDateTime completedAfter);
+
+    boolean existsByAnalysisIdAndStatus(Integer analysisId, AnalysisResults.AnalysisStatus status);
+
+    // 결과 재사용 시 원본 분석 확인 (공유 잠금: 매핑을 복사하는 동안 보관 기간 정리/삭제되지 않도록)
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select a from AnalysisResults a where a.analysisId = :analysisId")
+    Optional<AnalysisResults> findByIdForShare(@Param("analysisId") Integer analysisId);
+
+    // 대기 중인 단건 분석 작업 후보 (사용자별로 번갈아: 각 사용자의 1번째, 그다음 2번째 ...)
+    @Query(value = "SELECT analysis_id FROM (" +
+            "SELECT analysis_id, ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY analysis_id) AS user_rank " +
+            "FROM AnalysisResults WHERE analysis_status = 'PENDING' AND priority = 'INTERACTIVE') ranked " +
+            "WHERE user_rank <= :limit ORDER BY user_rank, analysis_id LIMIT :limit", nativeQuery = true)
+    List<Integer> findFairPendingIds(@Param("limit") int limit);
+
+    // 대기 중인 대량 분석 작업 후보 (사용자별로 번갈아, 이미 실행 중인 것 포함 사용자당 perUserLimit개까지)
+    @Query(value = "SELECT analysis_id FROM (" +
+            "SELECT p.analysis_id, ROW_NUMBER() OVER (PARTITION BY p.user_id ORDER BY p.analysis_id) AS user_rank, " +
+            "COALESCE(r.running, 0) AS running " +
+            "FROM AnalysisResults p LEFT JOIN (" +
+            "SELECT user_id, COUNT(*) AS running FROM AnalysisResults " +
+            "WHERE analysis_status = 'IN_PROGRESS' AND priority = 'BULK' GROUP BY user_id) r ON r.user_id = p.user_id " +
+            "WHERE p.analysis_status = 'PENDING' AND p.priority = 'BULK') ranked " +
+            "WHERE user_rank + running <= :perUserLimit ORDER BY user_rank, analysis_id LIMIT :limit", nativeQuery = true)
+    List<Integer> findFairPendingBulkIds(@Param("perUserLimit") int perUserLimit, @Param("limit") int limit);
+
+    long countByUserIdAndStatusAndPriority(Integer userId, AnalysisResults.AnalysisStatus status,
+                                           AnalysisResults.Priority priority);
+
+    // 대량 분석 진행 상황 (끝난 작업만)
+    List<AnalysisResults> findByAnalysisIdInAndStatusIn(Collection<Integer> analysisIds,
+                                                        Collection<AnalysisResults.AnalysisStatus> statuses);
+
+    // 후보 작업 선점 (다른 워커/인스턴스가 잡은 행은 건너뜀)
+    @Query(value = "SELECT * FROM AnalysisResults WHERE analysis_id IN (:ids) AND analysis_status = 'PENDING' " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<AnalysisResults> lockPendingByIds(@Param("ids") List<Integer> ids);
+
+    // 오래 멈춰있는 IN_PROGRESS 작업을 다시 대기 상태로 (재시도 횟수 이내)
+    @Modifying
+    @Query("update AnalysisResults a set a.status = com.shieldhub.backend.entity.AnalysisResults.AnalysisStatus.PENDING " +
+            "where a.status = com.shieldhub.backend.entity.AnalysisResults.AnalysisStatus.IN_PROGRESS " +
+            "and a.startedAt < :threshold and a.attemptCount < :maxAttempts")
+    int requeueStuck(@Param("threshold") LocalDateTime threshold, @Param("maxAttempts") int maxAttempts);
+
+    // 재시도 횟수를 넘긴 작업은 FAILED 처리
+    @Modifying
+    @Query("update AnalysisResults a set a.status = com.shieldhub.backend.entity.AnalysisResults.AnalysisStatus.FAILED, " +
+            "a.errorMessage = :errorMessage, a.completionDate = :now " +
+            "where a.status = com.shieldhub.backend.entity.AnalysisResults.AnalysisStatus.IN_PROGRESS " +
+            "and a.startedAt < :threshold and a.attemptCount >= :maxAttempts")
+    int failStuck(@Param("threshold") LocalDateTime threshold, @Param("maxAttempts") int maxAttempts,
+                  @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,20 @@
+package com.shieldhub.backend.repository;
+
+import com.shieldhub.backend.entity.AnalysisTypeIndex;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnalysisTypeIndexRepository extends JpaRepository<AnalysisTypeIndex, AnalysisTypeIndex.AnalysisTypeIndexId> {
+
+    // 분석에서 발견된 취약점 유형들을 역색인에 추가 (이미 있으면 무시)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO AnalysisTypeIndex (vulnerability_type, user_id, analysis_id) " +
+            "SELECT DISTINCT v.vulnerability_type, :userId, av.analysis_id FROM AnalysisVulnerabilities av " +
+            "JOIN Vulnerabilities v ON v.vulnerability_id = av.vulnerability_id " +
+            "WHERE av.analysis_id = :analysisId", nativeQuery = true)
+    int indexAnalysis(@Param("analysisId") Integer analysisId, @Param("userId") Integer userId);
+}
@@ -2,11 +2,45 @@ package com.shieldhub.backend.repository;
 
 import com.shieldhub.backend.entity.AnalysisVulnerabilities;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface AnalysisVulnerabilitiesRepository extends JpaRepository<AnalysisVulnerabilities, AnalysisVulnerabilities.AnalysisVulnerabilitiesId> {
+public interface AnalysisVulnerabilitiesRepository extends JpaRepository<AnalysisVulnerabilities, AnalysisVulnerabilities.AnalysisVulnerabilitiesId>,
+        AnalysisVulnerabilitiesRepositoryCustom {
     List<AnalysisVulnerabilities> findByIdAnalysisId(Integer analysisId);
-}
\ No newline at end of file
+
+    // 다른 분석의 취약점 매핑을 그대로 복사 (캐시된 결과 재사용)
+    @Modifying
+    @Query(value = "INSERT INTO AnalysisVulnerabilities (analysis_id, vulnerability_id, detection_context) " +
+            "SELECT :targetId, vulnerability_id, detection_context FROM AnalysisVulnerabilities " +
+            "WHERE analysis_id = :sourceId", nativeQuery = true)
+    int copyRelations(@Param("sourceId") Integer sourceId, @Param("targetId") Integer targetId);
+
+    // 분석 실패 시 중간까지 저장된 매핑 제거
+    @Modifying
+    @Query(value = "DELETE FROM AnalysisVulnerabilities WHERE analysis_id = :analysisId", nativeQuery = true)
+    int deleteByAnalysisId(@Param("analysisId") Integer analysisId);
+
+    // 분석별 취약점 수 (대량 분석 진행 상황)
+    @Query("select av.id.analysisId, count(av) from AnalysisVulnerabilities av " +
+            "where av.id.analysisId in :analysisIds group by av.id.analysisId")
+    List<Object[]> countByAnalysisIds(@Param("analysisIds") Collection<Integer> analysisIds);
+
+    // 분석별 심각도 집계
+    @Query("select v.severity, count(av) from AnalysisVulnerabilities av " +
+            "join Vulnerabilities v on v.vulnerabilityId = av.id.vulnerabilityId " +
+            "where av.id.analysisId = :analysisId group by v.severity")
+    List<Object[]> countBySeverity(@Param("analysisId") Integer analysisId);
+
+    // 분석별 취약점 유형/심각도 집계 (통계 반영용)
+    @Query("select v.vulnerabilityType, v.severity, count(av) from AnalysisVulnerabilities av " +
+            "join Vulnerabilities v on v.vulnerabilityId = av.id.vulnerabilityId " +
+            "where av.id.analysisId = :analysisId group by v.vulnerabilityType, v.severity")
+    List<Object[]> countByTypeAndSeverity(@Param("analysisId") Integer analysisId);
+}
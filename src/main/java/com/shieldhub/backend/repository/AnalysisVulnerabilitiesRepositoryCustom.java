@@ -0,0 +1,8 @@
+package com.shieldhub.backend.repository;
+
+import java.util.Map;
+
+public interface AnalysisVulnerabilitiesRepositoryCustom {
+    // 분석-취약점 매핑을 JDBC 배치 한 번으로 저장 (이미 있으면 detection_context만 갱신)
+    void batchUpsert(Integer analysisId, Map<Integer, String> detectionContextByVulnerabilityId);
+}
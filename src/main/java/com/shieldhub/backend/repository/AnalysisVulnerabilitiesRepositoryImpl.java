@@ -0,0 +1,31 @@
+package com.shieldhub.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class AnalysisVulnerabilitiesRepositoryImpl implements AnalysisVulnerabilitiesRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO AnalysisVulnerabilities (analysis_id, vulnerability_id, detection_context) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE detection_context = VALUES(detection_context)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchUpsert(Integer analysisId, Map<Integer, String> detectionContextByVulnerabilityId) {
+        if (detectionContextByVulnerabilityId.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Integer, String>> rows = new ArrayList<>(detectionContextByVulnerabilityId.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, analysisId);
+            ps.setInt(2, row.getKey());
+            ps.setString(3, row.getValue());
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.shieldhub.backend.repository;
+
+import com.shieldhub.backend.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // 발송 대상 선점 (PENDING이거나 임대 시간이 지난 SENDING), 다른 인스턴스가 잡은 행은 건너뜀
+    @Query(value = "SELECT * FROM EmailOutbox " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "   OR (status = 'SENDING' AND locked_until < :now) " +
+            "ORDER BY outbox_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
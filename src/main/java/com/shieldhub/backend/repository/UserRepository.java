@@ -1,10 +1,16 @@
 package com.shieldhub.backend.repository;
 
 import com.shieldhub.backend.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -23,4 +29,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // email 존재 여부 확인
     boolean existsByEmail(String email);
+
+    // 전체 username/email 스트리밍 조회 (MySQL은 fetch size MIN_VALUE일 때 행 단위 스트리밍)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("select u.username, u.email from User u")
+    Stream<Object[]> streamAllUsernamesAndEmails();
 }
\ No newline at end of file
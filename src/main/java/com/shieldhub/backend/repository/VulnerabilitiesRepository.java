@@ -4,10 +4,19 @@ import com.shieldhub.backend.entity.Vulnerabilities;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VulnerabilitiesRepository extends JpaRepository<Vulnerabilities, Integer> {
     // 이미 등록된 취약점인지 패턴과 타입으로 확인
     Optional<Vulnerabilities> findByVulnerabilityTypeAndDetectedPattern(String type, String pattern);
+
+    // 사전(VulnerabilityDictionary)에 없는 항목만 (유형, 패턴) unique 인덱스로 한 번에 조회
+    // (유형 × 패턴 조합으로 찾으므로 요청하지 않은 조합이 일부 섞일 수 있음)
+    List<Vulnerabilities> findByVulnerabilityTypeInAndDetectedPatternIn(Collection<String> types, Collection<String> patterns);
+
+    // 패턴 없이 보고된 항목 조회 (IN 조건은 NULL과 일치하지 않으므로 따로 조회)
+    List<Vulnerabilities> findByVulnerabilityTypeInAndDetectedPatternIsNull(Collection<String> types);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.shieldhub.backend.repository;
+
+import com.shieldhub.backend.entity.VulnerabilityStatsDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface VulnerabilityStatsDailyRepository extends
+        JpaRepository<VulnerabilityStatsDaily, VulnerabilityStatsDaily.VulnerabilityStatsDailyId>,
+        VulnerabilityStatsDailyRepositoryCustom {
+
+    // 사용자별 기간 집계 (PK 앞부분 범위 조회)
+    List<VulnerabilityStatsDaily> findByIdUserIdAndIdStatDateBetween(Integer userId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,10 @@
+package com.shieldhub.backend.repository;
+
+import com.shieldhub.backend.entity.VulnerabilityStatsDaily;
+
+import java.util.List;
+
+public interface VulnerabilityStatsDailyRepositoryCustom {
+    // 집계 행에 건수를 더함 (없으면 생성) - JDBC 배치 한 번
+    void batchIncrement(List<VulnerabilityStatsDaily> increments);
+}
@@ -0,0 +1,33 @@
+package com.shieldhub.backend.repository;
+
+import com.shieldhub.backend.entity.VulnerabilityStatsDaily;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class VulnerabilityStatsDailyRepositoryImpl implements VulnerabilityStatsDailyRepositoryCustom {
+
+    private static final String INCREMENT_SQL =
+            "INSERT INTO VulnerabilityStatsDaily (user_id, stat_date, vulnerability_type, severity, finding_count) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE finding_count = finding_count + VALUES(finding_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchIncrement(List<VulnerabilityStatsDaily> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, increments, increments.size(), (ps, row) -> {
+            VulnerabilityStatsDaily.VulnerabilityStatsDailyId id = row.getId();
+            ps.setInt(1, id.getUserId());
+            ps.setDate(2, Date.valueOf(id.getStatDate()));
+            ps.setString(3, id.getVulnerabilityType());
+            ps.setString(4, id.getSeverity().name());
+            ps.setLong(5, row.getFindingCount());
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.User;
+import com.shieldhub.backend.repository.UserRepository;
+import com.shieldhub.backend.util.CountingBloomFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * 사용자명/이메일 사용 가능 여부 확인
+ * 사용 중인 값들을 메모리의 Bloom Filter로 관리하여, "확실히 없음"인 경우 DB 조회를 생략한다.
+ * (Bloom Filter는 false negative가 없으므로 "있을 수도 있음"일 때만 DB 확인, 최종 판단은 DB unique 제약)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountAvailabilityService {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.auth.availability.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${app.auth.availability.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile CountingBloomFilter usernameFilter;
+    private volatile CountingBloomFilter emailFilter;
+    private volatile boolean ready = false;
+
+    /**
+     * 서버 시작 시 Users 테이블을 스트리밍 조회하여 필터 초기화
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        CountingBloomFilter usernames = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+        CountingBloomFilter emails = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+        usernameFilter = usernames;
+        emailFilter = emails;
+
+        long count = 0;
+        try (Stream<Object[]> rows = userRepository.streamAllUsernamesAndEmails()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                usernames.add(normalize((String) row[0]));
+                if (row[1] != null) {
+                    emails.add(normalize((String) row[1]));
+                }
+                count++;
+            }
+        }
+
+        ready = true;
+        log.info("사용자명/이메일 Bloom Filter 초기화 완료: {}명", count);
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        if (ready && !usernameFilter.mightContain(normalize(username))) {
+            meterRegistry.counter("auth.availability.filter", "field", "username", "result", "skip").increment();
+            return true;
+        }
+        meterRegistry.counter("auth.availability.filter", "field", "username", "result", "db").increment();
+        return !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        if (ready && !emailFilter.mightContain(normalize(email))) {
+            meterRegistry.counter("auth.availability.filter", "field", "email", "result", "skip").increment();
+            return true;
+        }
+        meterRegistry.counter("auth.availability.filter", "field", "email", "result", "db").increment();
+        return !userRepository.existsByEmail(email);
+    }
+
+    /**
+     * 가입 완료 시 필터에 추가 (트랜잭션 커밋 후 반영)
+     */
+    public void onUserCreated(User user) {
+        // 초기화 중에도 추가는 반영 (스캔이 놓친 신규 가입자로 인한 false negative 방지)
+        if (usernameFilter == null) {
+            return;
+        }
+        afterCommit(() -> {
+            usernameFilter.add(normalize(user.getUsername()));
+            if (user.getEmail() != null) {
+                emailFilter.add(normalize(user.getEmail()));
+            }
+        });
+    }
+
+    /**
+     * 탈퇴 완료 시 필터에서 제거 (트랜잭션 커밋 후 반영)
+     */
+    public void onUserDeleted(User user) {
+        // 초기화 중 제거는 생략 (아직 추가되지 않은 값을 빼면 false negative가 생길 수 있음, 남는 값은 오탐일 뿐)
+        if (!ready) {
+            return;
+        }
+        afterCommit(() -> {
+            usernameFilter.remove(normalize(user.getUsername()));
+            if (user.getEmail() != null) {
+                emailFilter.remove(normalize(user.getEmail()));
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // MySQL 기본 collation(대소문자/악센트 무시)과 같은 기준으로 정규화
+    private static String normalize(String value) {
+        String stripped = Normalizer.normalize(value.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+}
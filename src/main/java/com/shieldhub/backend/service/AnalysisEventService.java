@@ -0,0 +1,290 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.AnalysisResults;
+import com.shieldhub.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 분석 상태 변경 실시간 전송 (Server-Sent Events)
+ * - 분석 ID별 / 사용자별 구독 지원
+ * - 전송은 전용 스레드에서 수행하여 분석 워커가 느린 클라이언트에 묶이지 않음
+ * - 구독자별 대기 이벤트 수를 제한하고, 넘치면 오래된 이벤트부터 버림 (상태 이벤트는 최신 값만 의미 있음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalysisEventService {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.analysis.events.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.analysis.events.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.analysis.events.max-subscribers-per-user:20}")
+    private int maxSubscribersPerUser;
+
+    @Value("${app.analysis.events.max-pending-events:16}")
+    private int maxPendingEvents;
+
+    @Value("${app.analysis.events.sender-threads:2}")
+    private int senderThreads;
+
+    private final Map<Integer, Set<Subscription>> analysisSubscriptions = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Subscription>> userSubscriptions = new ConcurrentHashMap<>();
+    // 사용자별 구독 수 (0이 되면 항목 제거)
+    private final Map<Integer, Integer> subscriptionsPerUser = new ConcurrentHashMap<>();
+    private final AtomicInteger totalSubscriptions = new AtomicInteger();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "analysis-sse-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("analysis.events.subscribers", totalSubscriptions, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * 특정 분석의 상태 구독 (완료/실패 시 스트림 종료)
+     * 조회 후 등록 전에 발행된 상태 변경(특히 완료)을 놓치지 않도록, 등록한 뒤 latest로 현재 상태를 다시 읽어 전송
+     */
+    public SseEmitter subscribeAnalysis(AnalysisResults analysis, Supplier<AnalysisResults> latest) {
+        Subscription subscription = register(analysis.getUserId(), analysisSubscriptions, analysis.getAnalysisId(), true);
+        AnalysisResults current = analysis;
+        try {
+            AnalysisResults reloaded = latest.get();
+            if (reloaded != null) {
+                current = reloaded;
+            }
+        } catch (RuntimeException e) {
+            log.warn("SSE 구독 시 분석 상태 재조회 실패 (analysis={}): {}", analysis.getAnalysisId(), e.getMessage());
+        }
+        // 현재 상태를 먼저 전송 (등록 후 이미 더 최신 알림을 받았으면 생략, 끝난 분석이면 바로 종료)
+        if (!subscription.updated) {
+            subscription.enqueue(buildEvent(current, null, null));
+        }
+        if (isTerminal(current)) {
+            subscription.completeAfterDrain();
+        }
+        return subscription.emitter;
+    }
+
+    /**
+     * 사용자의 모든 분석 상태 구독
+     */
+    public SseEmitter subscribeUser(Integer userId) {
+        return register(userId, userSubscriptions, userId, false).emitter;
+    }
+
+    /**
+     * 분석 상태 변경 알림
+     */
+    public void publish(AnalysisResults analysis, Integer vulnerabilityCount, Map<String, Integer> severityCounts) {
+        if (totalSubscriptions.get() == 0) {
+            return;
+        }
+        SseEmitter.SseEventBuilder event = buildEvent(analysis, vulnerabilityCount, severityCounts);
+        boolean terminal = isTerminal(analysis);
+
+        for (Subscription subscription : analysisSubscriptions.getOrDefault(analysis.getAnalysisId(), Set.of())) {
+            subscription.updated = true;
+            subscription.enqueue(event);
+            if (terminal) {
+                subscription.completeAfterDrain();
+            }
+        }
+        for (Subscription subscription : userSubscriptions.getOrDefault(analysis.getUserId(), Set.of())) {
+            subscription.enqueue(event);
+        }
+    }
+
+    /**
+     * 새 분석 등록 알림 (사용자 구독자에게 PENDING 상태 전송)
+     */
+    @TransactionalEventListener
+    public void onAnalysisSubmitted(AnalysisSubmittedEvent event) {
+        publish(event.analysis(), null, null);
+    }
+
+    /**
+     * 연결 유지용 heartbeat (프록시/로드밸런서 idle timeout 방지)
+     */
+    @Scheduled(fixedDelayString = "${app.analysis.events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        SseEmitter.SseEventBuilder heartbeat = SseEmitter.event().comment("heartbeat");
+        analysisSubscriptions.values().forEach(set -> set.forEach(s -> s.enqueueIfIdle(heartbeat)));
+        userSubscriptions.values().forEach(set -> set.forEach(s -> s.enqueueIfIdle(heartbeat)));
+    }
+
+    private Subscription register(Integer userId, Map<Integer, Set<Subscription>> index, Integer key, boolean analysisScoped) {
+        if (totalSubscriptions.incrementAndGet() > maxSubscribers) {
+            totalSubscriptions.decrementAndGet();
+            throw new TooManyRequestsException("실시간 구독 수가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        boolean[] admitted = {false};
+        subscriptionsPerUser.compute(userId, (k, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxSubscribersPerUser) {
+                return count;
+            }
+            admitted[0] = true;
+            return current + 1;
+        });
+        if (!admitted[0]) {
+            totalSubscriptions.decrementAndGet();
+            throw new TooManyRequestsException("동시에 열 수 있는 실시간 구독 수를 초과했습니다.");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscription subscription = new Subscription(emitter);
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+
+        Runnable cleanup = () -> {
+            if (subscription.closed.compareAndSet(false, true)) {
+                index.computeIfPresent(key, (k, set) -> {
+                    set.remove(subscription);
+                    return set.isEmpty() ? null : set;
+                });
+                subscriptionsPerUser.computeIfPresent(userId, (k, count) -> count > 1 ? count - 1 : null);
+                totalSubscriptions.decrementAndGet();
+            }
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(e -> cleanup.run());
+        log.debug("SSE 구독 등록 ({}={}, user={})", analysisScoped ? "analysis" : "user", key, userId);
+        return subscription;
+    }
+
+    private static boolean isTerminal(AnalysisResults analysis) {
+        return analysis.getStatus() == AnalysisResults.AnalysisStatus.COMPLETED
+                || analysis.getStatus() == AnalysisResults.AnalysisStatus.FAILED;
+    }
+
+    private SseEmitter.SseEventBuilder buildEvent(AnalysisResults analysis, Integer vulnerabilityCount,
+                                                  Map<String, Integer> severityCounts) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("analysisId", analysis.getAnalysisId());
+        data.put("targetUrl", analysis.getUrlToAnalyze());
+        data.put("status", analysis.getStatus());
+        data.put("errorMessage", analysis.getErrorMessage());
+        data.put("finishedAt", analysis.getCompletionDate());
+        if (vulnerabilityCount != null) {
+            data.put("vulnerabilityCount", vulnerabilityCount);
+        }
+        if (severityCounts != null) {
+            data.put("severityCounts", severityCounts);
+        }
+        data.put("timestamp", LocalDateTime.now());
+
+        return SseEmitter.event()
+                .id(analysis.getAnalysisId() + "-" + analysis.getStatus())
+                .name("analysis-status")
+                .data(data);
+    }
+
+    /**
+     * 구독자별 전송 대기열 (한 번에 하나의 전송 스레드만 drain)
+     */
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedQueue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean completeWhenDrained = false;
+        // 등록 이후 publish로 상태 변경을 받았는지 (구독 시 재조회한 상태보다 최신)
+        private volatile boolean updated = false;
+
+        private Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            pending.offer(event);
+            // 대기열이 넘치면 오래된 이벤트 버림
+            if (pendingCount.incrementAndGet() > maxPendingEvents && pending.poll() != null) {
+                pendingCount.decrementAndGet();
+                meterRegistry.counter("analysis.events.dropped").increment();
+            }
+            scheduleDrain();
+        }
+
+        void enqueueIfIdle(SseEmitter.SseEventBuilder event) {
+            if (pendingCount.get() == 0) {
+                enqueue(event);
+            }
+        }
+
+        void completeAfterDrain() {
+            completeWhenDrained = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(event);
+                }
+                if (completeWhenDrained) {
+                    emitter.complete();
+                }
+            } catch (Exception e) {
+                // 클라이언트 연결 끊김
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+                // drain 종료 직전에 들어온 이벤트 처리
+                if (!pending.isEmpty() && !closed.get()) {
+                    scheduleDrain();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.AnalysisResults;
+import com.shieldhub.backend.repository.AnalysisResultsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * 분석 작업 워커
+ * PENDING 작업을 빈 슬롯 수만큼 선점(IN_PROGRESS)하여 크기가 제한된 스레드 풀에서 실행한다.
+ * - 단건 분석(INTERACTIVE)과 대량 분석(BULK)은 슬롯/스레드 풀을 따로 써서, 대량 작업이 쌓여도 단건 분석이 바로 실행된다.
+ * - 대량 분석 작업은 사용자별 동시 실행 수(per-user-concurrency, 전체 인스턴스 기준)를 넘지 않게 선점한다.
+ * 서버 재시작 등으로 IN_PROGRESS에 멈춘 작업은 주기적으로 다시 대기열에 넣는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalysisJobWorker {
+
+    private final AnalysisService analysisService;
+    private final AnalysisResultsRepository analysisResultsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AnalysisEventService analysisEventService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.analysis.worker.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.analysis.worker.stuck-timeout-minutes:15}")
+    private long stuckTimeoutMinutes;
+
+    @Value("${app.analysis.worker.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.analysis.bulk.max-concurrency:4}")
+    private int bulkPoolSize;
+
+    @Value("${app.analysis.bulk.per-user-concurrency:2}")
+    private int bulkPerUserConcurrency;
+
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor bulkExecutor;
+    private ExecutorService dispatcher;
+    private Semaphore slots;
+    private Semaphore bulkSlots;
+
+    @PostConstruct
+    public void init() {
+        slots = new Semaphore(poolSize);
+        executor = newPool(poolSize, "analysis-worker-");
+        bulkSlots = new Semaphore(bulkPoolSize);
+        bulkExecutor = newPool(bulkPoolSize, "bulk-analysis-");
+        // 커밋 이후 콜백에서는 새 트랜잭션을 열 수 없으므로 선점은 별도 스레드에서 수행
+        dispatcher = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "analysis-dispatcher");
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("analysis.worker.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("analysis.bulk.active", bulkExecutor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+        executor.shutdown();
+        bulkExecutor.shutdown();
+    }
+
+    /**
+     * 새 작업 등록 시 (커밋 후) 바로 선점 시도
+     */
+    @TransactionalEventListener
+    public void onAnalysisSubmitted(AnalysisSubmittedEvent event) {
+        dispatcher.execute(this::poll);
+    }
+
+    /**
+     * 빈 슬롯 수만큼 PENDING 작업 선점 후 실행 (단건 분석 먼저)
+     */
+    @Scheduled(fixedDelayString = "${app.analysis.worker.poll-interval-ms:2000}")
+    public void poll() {
+        poll(slots, executor, analysisResultsRepository::findFairPendingIds);
+        poll(bulkSlots, bulkExecutor,
+                limit -> analysisResultsRepository.findFairPendingBulkIds(bulkPerUserConcurrency, limit));
+    }
+
+    private void poll(Semaphore laneSlots, Executor laneExecutor, IntFunction<List<Integer>> candidates) {
+        int available = laneSlots.drainPermits();
+        if (available == 0) {
+            return;
+        }
+
+        List<AnalysisResults> jobs;
+        try {
+            jobs = claimJobs(candidates, available);
+        } catch (Exception e) {
+            laneSlots.release(available);
+            log.error("분석 작업 선점 실패: {}", e.getMessage());
+            return;
+        }
+
+        // 사용하지 않은 슬롯 반환
+        laneSlots.release(available - jobs.size());
+
+        for (AnalysisResults job : jobs) {
+            analysisEventService.publish(job, null, null);
+            laneExecutor.execute(() -> {
+                try {
+                    analysisService.executeAnalysis(job);
+                } catch (Exception e) {
+                    log.error("분석 작업 실행 오류 (id={}): {}", job.getAnalysisId(), e.getMessage());
+                } finally {
+                    laneSlots.release();
+                }
+                // 작업이 끝나면 남은 대기 작업을 바로 이어서 처리
+                poll();
+            });
+        }
+    }
+
+    private List<AnalysisResults> claimJobs(IntFunction<List<Integer>> candidates, int limit) {
+        return transactionTemplate.execute(status -> {
+            // 한 사용자가 많이 등록해도 다른 사용자 작업이 뒤로 밀리지 않도록 사용자별로 번갈아 선점
+            List<Integer> candidateIds = candidates.apply(limit);
+            if (candidateIds.isEmpty()) {
+                return List.<AnalysisResults>of();
+            }
+            List<AnalysisResults> pending = analysisResultsRepository.lockPendingByIds(candidateIds);
+            LocalDateTime now = LocalDateTime.now();
+            for (AnalysisResults job : pending) {
+                job.setStatus(AnalysisResults.AnalysisStatus.IN_PROGRESS);
+                job.setStartedAt(now);
+                job.setAttemptCount((job.getAttemptCount() == null ? 0 : job.getAttemptCount()) + 1);
+            }
+            return analysisResultsRepository.saveAll(pending);
+        });
+    }
+
+    /**
+     * IN_PROGRESS에 멈춘 작업 복구 (서버 시작 시 + 주기적으로)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.analysis.worker.recovery-interval-ms:60000}")
+    public void recoverStuckJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(stuckTimeoutMinutes);
+        transactionTemplate.executeWithoutResult(status -> {
+            int requeued = analysisResultsRepository.requeueStuck(threshold, maxAttempts);
+            int failed = analysisResultsRepository.failStuck(threshold, maxAttempts,
+                    "분석 작업이 제한 시간 내에 완료되지 않았습니다.", LocalDateTime.now());
+            if (requeued > 0 || failed > 0) {
+                log.warn("멈춘 분석 작업 복구: 재시도 {}건, 실패 처리 {}건", requeued, failed);
+            }
+        });
+    }
+
+    private static ThreadPoolExecutor newPool(int size, String threadNamePrefix) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                size, size,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, threadNamePrefix + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+        );
+    }
+}
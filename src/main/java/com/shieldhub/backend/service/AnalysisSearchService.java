@@ -0,0 +1,135 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.AnalysisResults;
+import com.shieldhub.backend.entity.AnalysisTypeIndex;
+import com.shieldhub.backend.repository.AnalysisResultsRepository;
+import com.shieldhub.backend.repository.AnalysisTypeIndexRepository;
+import com.shieldhub.backend.util.UrlCanonicalizer;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 분석 이력 검색 (도메인 / URL 접두어 / 취약점 유형)
+ * - 도메인: reversed_host 컬럼 접두어 조회 (com.example. / com.example.%)
+ * - URL 접두어: canonical_url 접두어 조회
+ * - 취약점 유형: AnalysisTypeIndex 역색인 (분석 완료 시 추가)
+ * 모두 (user_id, ...) 인덱스로 처리되며, 결과는 analysis_id 역순 키셋 페이지네이션.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalysisSearchService {
+
+    private final AnalysisResultsRepository analysisResultsRepository;
+    private final AnalysisTypeIndexRepository analysisTypeIndexRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.analysis.search.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    // 새로 저장되는 분석은 항상 reversed_host가 채워지므로, 한 번 비면 재시작 전까지 다시 조회하지 않음
+    private volatile boolean backfillComplete;
+
+    /**
+     * 분석 완료 반영 (분석 상태를 COMPLETED로 저장하는 트랜잭션 안에서 호출)
+     */
+    public void indexCompletion(AnalysisResults analysis) {
+        if (analysis.getUserId() != null) {
+            analysisTypeIndexRepository.indexAnalysis(analysis.getAnalysisId(), analysis.getUserId());
+        }
+    }
+
+    /**
+     * 검색 (조건은 모두 선택, 지정한 조건은 AND)
+     * afterId가 있으면 그보다 작은 analysis_id부터 limit개
+     */
+    public List<AnalysisResults> search(Integer userId, String domain, boolean includeSubdomains,
+                                        String urlPrefix, String vulnerabilityType, Integer afterId, int limit) {
+        Specification<AnalysisResults> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), userId));
+
+            if (domain != null && !domain.isBlank()) {
+                String reversed = UrlCanonicalizer.reverseDomain(domain.replaceFirst("^\\*\\.", ""));
+                predicates.add(includeSubdomains
+                        ? cb.like(root.get("reversedHost"), escapeLike(reversed) + "%", '\\')
+                        : cb.equal(root.get("reversedHost"), reversed));
+            }
+            if (urlPrefix != null && !urlPrefix.isBlank()) {
+                String canonicalPrefix = UrlCanonicalizer.canonicalize(urlPrefix);
+                // 정규화 시 붙는 빈 경로 "/"는 접두어 검색에서 제외 (https://a.com -> https://a.com%)
+                if (!urlPrefix.trim().endsWith("/") && canonicalPrefix.endsWith("/")) {
+                    canonicalPrefix = canonicalPrefix.substring(0, canonicalPrefix.length() - 1);
+                }
+                predicates.add(cb.like(root.get("canonicalUrl"), escapeLike(canonicalPrefix) + "%", '\\'));
+            }
+            if (vulnerabilityType != null && !vulnerabilityType.isBlank()) {
+                Subquery<Integer> indexed = query.subquery(Integer.class);
+                Root<AnalysisTypeIndex> index = indexed.from(AnalysisTypeIndex.class);
+                indexed.select(index.get("id").get("analysisId")).where(
+                        cb.equal(index.get("id").get("vulnerabilityType"), vulnerabilityType.trim()),
+                        cb.equal(index.get("id").get("userId"), userId),
+                        cb.equal(index.get("id").get("analysisId"), root.get("analysisId")));
+                predicates.add(cb.exists(indexed));
+            }
+            if (afterId != null) {
+                predicates.add(cb.lessThan(root.get("analysisId"), afterId));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+
+        return analysisResultsRepository.findBy(spec, q -> q
+                .sortBy(Sort.by(Sort.Direction.DESC, "analysisId"))
+                .limit(limit)
+                .all());
+    }
+
+    /**
+     * 검색 컬럼 도입 이전 분석들을 조금씩 색인 (reversed_host가 비어 있는 행이 없어질 때까지)
+     * 대상 조회는 idx_analysis_reversed_host 인덱스 사용, 남은 행이 배치 크기보다 적으면 완료 처리
+     */
+    @Scheduled(fixedDelayString = "${app.analysis.search.backfill-interval-ms:60000}")
+    public void backfill() {
+        if (backfillComplete) {
+            return;
+        }
+        Integer indexed = transactionTemplate.execute(status -> {
+            List<AnalysisResults> rows = analysisResultsRepository.findByReversedHostIsNull(Limit.of(backfillBatchSize));
+            for (AnalysisResults row : rows) {
+                if (row.getCanonicalUrl() == null) {
+                    row.setCanonicalUrl(UrlCanonicalizer.canonicalize(row.getUrlToAnalyze()));
+                }
+                row.setReversedHost(UrlCanonicalizer.reversedHost(row.getUrlToAnalyze()));
+                if (row.getStatus() == AnalysisResults.AnalysisStatus.COMPLETED) {
+                    indexCompletion(row);
+                }
+            }
+            analysisResultsRepository.saveAll(rows);
+            return rows.size();
+        });
+        if (indexed != null && indexed > 0) {
+            log.info("분석 검색 색인 보충: {}건", indexed);
+        }
+        if (indexed != null && indexed < backfillBatchSize) {
+            backfillComplete = true;
+            log.info("분석 검색 색인 보충 완료");
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
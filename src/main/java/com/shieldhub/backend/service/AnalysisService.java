@@ -3,19 +3,19 @@ package com.shieldhub.backend.service;
 import com.shieldhub.backend.dto.response.FlaskAnalysisResponse;
 import com.shieldhub.backend.entity.*;
 import com.shieldhub.backend.repository.*;
+import com.shieldhub.backend.util.UrlCanonicalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -23,17 +23,30 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AnalysisService {
 
-    private final RestTemplate restTemplate;
+    private final ScannerClient scannerClient;
+    private final ScannerScheduler scannerScheduler;
     private final UserRepository userRepository;
     private final AnalysisResultsRepository analysisResultsRepository;
-    private final VulnerabilitiesRepository vulnerabilitiesRepository;
     private final AnalysisVulnerabilitiesRepository analysisVulnerabilitiesRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AnalysisEventService analysisEventService;
+    private final ScanResultCache scanResultCache;
+    private final VulnerabilityDictionary vulnerabilityDictionary;
+    private final VulnerabilityStatsService vulnerabilityStatsService;
+    private final AnalysisSearchService analysisSearchService;
 
-    @Value("${app.flask.server-url}")
-    private String flaskServerUrl;
+    @Value("${app.flask.streaming.enabled:false}")
+    private boolean streamingEnabled;
 
+    @Value("${app.flask.streaming.batch-size:500}")
+    private int streamingBatchSize;
+
+    /**
+     * 분석 요청 등록 (PENDING 상태로 저장 후 즉시 반환, 실제 분석은 AnalysisJobWorker가 수행)
+     */
     @Transactional
-    public FlaskAnalysisResponse startAnalysis(String url, String username) {
+    public AnalysisResults submitAnalysis(String url, String username) {
         // 1. 사용자 ID 찾기
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다"));
@@ -41,89 +54,215 @@ public class AnalysisService {
         // 2. 분석 요청 기록 (상태: PENDING)
         AnalysisResults analysisRecord = new AnalysisResults();
         analysisRecord.setUrlToAnalyze(url);
+        analysisRecord.setCanonicalUrl(UrlCanonicalizer.canonicalize(url));
+        analysisRecord.setReversedHost(UrlCanonicalizer.reversedHost(url));
         analysisRecord.setUserId(user.getUserId());
         analysisRecord.setStatus(AnalysisResults.AnalysisStatus.PENDING);
+        analysisRecord.setAttemptCount(0);
         AnalysisResults savedRecord = analysisResultsRepository.save(analysisRecord);
 
+        // 3. 커밋 후 워커 깨우기
+        eventPublisher.publishEvent(new AnalysisSubmittedEvent(savedRecord));
+        return savedRecord;
+    }
+
+    /**
+     * 선점된(IN_PROGRESS) 분석 작업 실행
+     * Flask 통신은 트랜잭션 밖에서 수행하여 DB 커넥션을 점유하지 않는다.
+     */
+    public AnalysisResults executeAnalysis(AnalysisResults analysisRecord) {
+        String canonicalUrl = analysisRecord.getCanonicalUrl() != null
+                ? analysisRecord.getCanonicalUrl()
+                : UrlCanonicalizer.canonicalize(analysisRecord.getUrlToAnalyze());
         try {
-            // 3. Flask AI 서버에 분석 요청
-            log.info("Flask 서버로 분석 요청 전송: {}", url);
-            String flaskApiUrl = flaskServerUrl + "/api/analyze";
+            // 1. 최근에 같은 URL 분석이 완료되었으면 그 결과 재사용
+            Integer cachedAnalysisId = scanResultCache.findRecentAnalysisId(canonicalUrl);
+            if (cachedAnalysisId != null) {
+                return copyResults(analysisRecord, canonicalUrl, cachedAnalysisId);
+            }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            Map<String, String> requestBody = Collections.singletonMap("url", url);
-            HttpEntity<Map<String, String>> requestEntity = new HttpEntity<>(requestBody, headers);
+            // 2. 같은 URL 스캔이 진행 중이면 합류, 아니면 직접 스캔
+            return scanResultCache.executeOnce(canonicalUrl,
+                    () -> scanAndSave(analysisRecord),
+                    sourceAnalysisId -> copyResults(analysisRecord, canonicalUrl, sourceAnalysisId));
+        } catch (Exception e) {
+            return markFailed(analysisRecord, e);
+        }
+    }
 
-            ResponseEntity<FlaskAnalysisResponse> responseEntity = restTemplate.postForEntity(
-                    flaskApiUrl,
-                    requestEntity,
-                    FlaskAnalysisResponse.class
-            );
+    private AnalysisResults scanAndSave(AnalysisResults analysisRecord) {
+        if (streamingEnabled) {
+            return scanAndSaveStreaming(analysisRecord);
+        }
 
-            FlaskAnalysisResponse flaskResponse = responseEntity.getBody();
+        String url = analysisRecord.getUrlToAnalyze();
+        try {
+            // 1. Flask AI 서버에 분석 요청 (사용자별 공정 스케줄링 + 커넥션 풀 / 제한 시간 / 서킷 브레이커 적용)
+            log.info("Flask 서버로 분석 요청 전송: {}", url);
+            FlaskAnalysisResponse flaskResponse = scannerScheduler.execute(analysisRecord.getUserId(),
+                    scannerPriority(analysisRecord), () -> scannerClient.analyze(url));
 
             if (flaskResponse == null || !flaskResponse.isSuccess()) {
-                throw new RuntimeException("Flask 서버 분석 실패: " + flaskResponse.toString());
+                throw new RuntimeException("Flask 서버 분석 실패: " + flaskResponse);
             }
 
-            // 4. 분석 결과 DB에 저장
+            // 2. 분석 결과 DB에 저장 (사전 조회/추가는 트랜잭션을 열기 전에)
             log.info("Flask 분석 완료. 결과 DB 저장 시작...");
-            saveFlaskResults(savedRecord, flaskResponse);
+            List<FlaskAnalysisResponse.VulnerabilityDetail> vulnerabilities = flaskResponse.getVulnerabilities() == null
+                    ? List.of() : flaskResponse.getVulnerabilities();
+            Map<Integer, String> findings = resolveFindings(vulnerabilities);
+            // 알림용 집계는 커밋 전에 (커밋 후 오류가 나면 아래 catch가 COMPLETED를 FAILED로 덮어씀)
+            Map<String, Integer> severityCounts = countBySeverity(vulnerabilities, new HashMap<>());
+            AnalysisResults completed = transactionTemplate.execute(status -> saveFlaskResults(analysisRecord, findings));
 
-            return flaskResponse;
+            // 3. 구독 중인 클라이언트에 완료 알림 (취약점 수 포함)
+            analysisEventService.publish(completed, vulnerabilities.size(), severityCounts);
+            return completed;
 
         } catch (Exception e) {
             log.error("Flask 서버 통신 오류: {}", e.getMessage());
-            // 5. 오류 발생 시 DB 상태 FAILED로 변경
-            savedRecord.setStatus(AnalysisResults.AnalysisStatus.FAILED);
-            savedRecord.setErrorMessage(e.getMessage());
-            savedRecord.setCompletionDate(LocalDateTime.now());
-            analysisResultsRepository.save(savedRecord);
-            throw new RuntimeException("AI 서버 통신 중 오류가 발생했습니다.", e);
+            return markFailed(analysisRecord, e);
         }
     }
 
-    @Transactional
-    protected void saveFlaskResults(AnalysisResults analysisRecord, FlaskAnalysisResponse flaskResponse) {
-        // 1. Vulnerabilities 테이블에 취약점 정보 저장 (중복 확인)
-        for (FlaskAnalysisResponse.VulnerabilityDetail detail : flaskResponse.getVulnerabilities()) {
-
-            // 1-1. DB에서 (Type + Pattern)으로 이미 존재하는 취약점인지 확인
-            Vulnerabilities vuln = vulnerabilitiesRepository
-                    .findByVulnerabilityTypeAndDetectedPattern(detail.getType(), detail.getPattern())
-                    .orElseGet(() -> {
-                        // 1-2. 없으면 새로 저장
-                        Vulnerabilities newVuln = new Vulnerabilities();
-                        newVuln.setVulnerabilityType(detail.getType());
-                        newVuln.setDetectedPattern(detail.getPattern());
-
-                        // Enum 변환 (대소문자 무시, 예외 처리 추가)
-                        try {
-                            newVuln.setSeverity(Vulnerabilities.Severity.valueOf(detail.getSeverity().toUpperCase()));
-                        } catch (IllegalArgumentException e) {
-                            log.warn("알 수 없는 Severity 값: {}. 기본값 HIGH 사용", detail.getSeverity());
-                            newVuln.setSeverity(Vulnerabilities.Severity.HIGH); // 기본값
-                        }
-
-                        newVuln.setDetails(detail.getDetails()); // 상세 설명
-                        return vulnerabilitiesRepository.save(newVuln);
-                    });
-
-            // 2. AnalysisVulnerabilities (중간 테이블)에 매핑 정보 저장
-            AnalysisVulnerabilities.AnalysisVulnerabilitiesId relationId =
-                    new AnalysisVulnerabilities.AnalysisVulnerabilitiesId(
-                            analysisRecord.getAnalysisId(),
-                            vuln.getVulnerabilityId()
-                    );
-
-            AnalysisVulnerabilities relation = new AnalysisVulnerabilities(relationId, detail.getDetails());
-            analysisVulnerabilitiesRepository.save(relation);
+    // 스트리밍 모드: 응답을 읽는 대로 일정 개수씩 저장 (대용량 응답도 메모리 사용량 일정)
+    private AnalysisResults scanAndSaveStreaming(AnalysisResults analysisRecord) {
+        String url = analysisRecord.getUrlToAnalyze();
+        Integer analysisId = analysisRecord.getAnalysisId();
+        Map<String, Integer> severityCounts = new HashMap<>();
+        int[] received = {0};
+        try {
+            log.info("Flask 서버로 분석 요청 전송 (스트리밍): {}", url);
+            FlaskAnalysisResponse summary = scannerScheduler.execute(analysisRecord.getUserId(),
+                    scannerPriority(analysisRecord),
+                    () -> scannerClient.analyzeStreaming(url, streamingBatchSize, batch -> {
+                        Map<Integer, String> findings = resolveFindings(batch);
+                        transactionTemplate.executeWithoutResult(status -> linkFindings(analysisId, findings));
+                        countBySeverity(batch, severityCounts);
+                        received[0] += batch.size();
+                    }));
+
+            if (summary == null || !summary.isSuccess()) {
+                throw new RuntimeException("Flask 서버 분석 실패: " + summary);
+            }
+
+            log.info("Flask 분석 완료. 취약점 {}건 저장", received[0]);
+            AnalysisResults completed = transactionTemplate.execute(status -> complete(analysisRecord));
+            analysisEventService.publish(completed, received[0], severityCounts);
+            return completed;
+
+        } catch (Exception e) {
+            log.error("Flask 서버 통신 오류: {}", e.getMessage());
+            // 중간까지 저장된 매핑 제거 후 실패 처리
+            if (received[0] > 0) {
+                transactionTemplate.executeWithoutResult(status ->
+                        analysisVulnerabilitiesRepository.deleteByAnalysisId(analysisId));
+            }
+            return markFailed(analysisRecord, e);
         }
+    }
+
+    // 다른 분석(같은 URL)의 결과를 이 분석에 복사
+    // 원본이 그 사이 삭제/정리되었으면 취약점 없는 결과로 완료하지 않고 직접 스캔
+    private AnalysisResults copyResults(AnalysisResults analysisRecord, String canonicalUrl, Integer sourceAnalysisId) {
+        log.info("동일 URL 분석 결과 재사용: {} (source={})", analysisRecord.getUrlToAnalyze(), sourceAnalysisId);
+        Map<String, Integer> severityCounts = new HashMap<>();
+        AnalysisResults completed = transactionTemplate.execute(status -> {
+            boolean sourceAvailable = analysisResultsRepository.findByIdForShare(sourceAnalysisId)
+                    .filter(source -> source.getStatus() == AnalysisResults.AnalysisStatus.COMPLETED)
+                    .isPresent();
+            if (!sourceAvailable) {
+                return null;
+            }
+            analysisVulnerabilitiesRepository.copyRelations(sourceAnalysisId, analysisRecord.getAnalysisId());
+            // 복사한 결과 집계도 같은 트랜잭션에서 (트랜잭션 밖 조회는 아직 반영 전인 복제본으로 갈 수 있음)
+            for (Object[] row : analysisVulnerabilitiesRepository.countBySeverity(analysisRecord.getAnalysisId())) {
+                severityCounts.put(String.valueOf(row[0]), ((Number) row[1]).intValue());
+            }
+            return complete(analysisRecord);
+        });
 
-        // 3. AnalysisResults 상태 COMPLETED로 업데이트
+        if (completed == null) {
+            log.warn("재사용할 분석이 삭제되어 다시 스캔: {} (source={})", analysisRecord.getUrlToAnalyze(), sourceAnalysisId);
+            scanResultCache.invalidate(canonicalUrl, sourceAnalysisId);
+            return scanAndSave(analysisRecord);
+        }
+
+        int total = severityCounts.values().stream().mapToInt(Integer::intValue).sum();
+        analysisEventService.publish(completed, total, severityCounts);
+        return completed;
+    }
+
+    // 분석 완료 처리 (트랜잭션 안에서 호출, 통계 집계/검색 색인도 같은 트랜잭션으로 반영)
+    private AnalysisResults complete(AnalysisResults analysisRecord) {
         analysisRecord.setStatus(AnalysisResults.AnalysisStatus.COMPLETED);
         analysisRecord.setCompletionDate(LocalDateTime.now());
-        analysisResultsRepository.save(analysisRecord);
+        AnalysisResults saved = analysisResultsRepository.save(analysisRecord);
+        vulnerabilityStatsService.recordCompletion(saved);
+        analysisSearchService.indexCompletion(saved);
+        return saved;
+    }
+
+    // 오류 발생 시 DB 상태 FAILED로 변경
+    private AnalysisResults markFailed(AnalysisResults analysisRecord, Exception e) {
+        analysisRecord.setStatus(AnalysisResults.AnalysisStatus.FAILED);
+        analysisRecord.setErrorMessage(e.getMessage());
+        analysisRecord.setCompletionDate(LocalDateTime.now());
+        AnalysisResults failed = analysisResultsRepository.save(analysisRecord);
+        analysisEventService.publish(failed, null, null);
+        return failed;
+    }
+
+    // 대량 분석 작업은 스캐너 슬롯도 BULK 등급으로 (단건 분석이 먼저 슬롯을 받음)
+    private static ScannerScheduler.Priority scannerPriority(AnalysisResults analysisRecord) {
+        return analysisRecord.getPriority() == AnalysisResults.Priority.BULK
+                ? ScannerScheduler.Priority.BULK : ScannerScheduler.Priority.INTERACTIVE;
+    }
+
+    private Map<String, Integer> countBySeverity(List<FlaskAnalysisResponse.VulnerabilityDetail> details,
+                                                 Map<String, Integer> counts) {
+        if (details == null) {
+            return counts;
+        }
+        for (FlaskAnalysisResponse.VulnerabilityDetail detail : details) {
+            String severity = detail.getSeverity() == null ? "UNKNOWN" : detail.getSeverity().toUpperCase();
+            counts.merge(severity, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    protected AnalysisResults saveFlaskResults(AnalysisResults analysisRecord, Map<Integer, String> findings) {
+        // 1. 취약점 매핑 배치 저장
+        linkFindings(analysisRecord.getAnalysisId(), findings);
+
+        // 2. AnalysisResults 상태 COMPLETED로 업데이트 + 통계 반영
+        return complete(analysisRecord);
+    }
+
+    /**
+     * 취약점 목록을 vulnerability_id → detection_context로 변환 (트랜잭션 밖에서 호출)
+     * 사전에 없는 취약점은 여기서 별도 트랜잭션으로 한 번에 추가된다.
+     * (같은 취약점이 여러 번 보고되면 마지막 detection_context 사용)
+     */
+    protected Map<Integer, String> resolveFindings(List<FlaskAnalysisResponse.VulnerabilityDetail> findings) {
+        Map<Integer, String> detectionContexts = new LinkedHashMap<>();
+        if (findings == null || findings.isEmpty()) {
+            return detectionContexts;
+        }
+        List<Integer> vulnerabilityIds = vulnerabilityDictionary.resolveIds(findings);
+        for (int i = 0; i < findings.size(); i++) {
+            detectionContexts.put(vulnerabilityIds.get(i), findings.get(i).getDetails());
+        }
+        return detectionContexts;
+    }
+
+    /**
+     * resolveFindings 결과를 분석에 연결 (트랜잭션 안에서 호출, JDBC 배치 한 번으로 저장)
+     */
+    protected void linkFindings(Integer analysisId, Map<Integer, String> detectionContexts) {
+        if (detectionContexts.isEmpty()) {
+            return;
+        }
+        analysisVulnerabilitiesRepository.batchUpsert(analysisId, detectionContexts);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.AnalysisResults;
+
+/**
+ * 분석 작업이 대기열(PENDING)에 등록되었음을 알리는 이벤트
+ */
+public record AnalysisSubmittedEvent(AnalysisResults analysis) {
+}
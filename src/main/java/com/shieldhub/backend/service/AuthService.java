@@ -10,12 +10,21 @@ import com.shieldhub.backend.entity.User;
 import com.shieldhub.backend.repository.UserRepository;
 import com.shieldhub.backend.util.JwtTokenUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.shieldhub.backend.dto.request.FindIdRequest;
+import java.util.Locale;
 import java.util.Optional;
 
+/**
+ * 회원가입 / 로그인 / 계정 관리
+ * BCrypt 해싱·검증이 있는 메서드는 트랜잭션 밖에서 해시를 계산하고 조회·저장만 짧은 트랜잭션으로 실행한다.
+ * (해싱은 수십~수백 ms가 걸리므로 그동안 DB 커넥션을 잡고 있지 않도록)
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -24,32 +33,69 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final JwtTokenUtil jwtTokenUtil;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final OtpService otpService;
     private final EmailService emailService;
+    private final AccountAvailabilityService accountAvailabilityService;
+    private final CustomUserDetailsService userDetailsService;
+    private final TransactionTemplate transactionTemplate;
 
     // 회원가입
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User register(RegisterRequest request) {
-        // 이미 존재하는 사용자명 확인
-        if (userRepository.existsByUsername(request.getUsername())) {
+        // 이미 존재하는 사용자명 확인 (Bloom Filter에서 "있을 수도 있음"일 때만 DB 조회)
+        if (!accountAvailabilityService.isUsernameAvailable(request.getUsername())) {
             throw new RuntimeException("이미 사용 중인 사용자명입니다");
         }
 
         // 이메일 중복 확인
-        if (request.getEmail() != null && userRepository.existsByEmail(request.getEmail())) {
+        if (request.getEmail() != null && !accountAvailabilityService.isEmailAvailable(request.getEmail())) {
             throw new RuntimeException("이미 사용 중인 이메일입니다");
         }
 
         // User 엔티티 생성
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
         user.setName(request.getName());
         user.setPhoneNumber(request.getPhoneNumber());
         user.setEmail(request.getEmail());
         user.setIsOtpEnabled(false);
 
-        return userRepository.save(user);
+        // 최종 중복 판단은 DB unique 제약 (동시 가입 경쟁 대비)
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateAccountException(e);
+        }
+
+        accountAvailabilityService.onUserCreated(savedUser);
+        return savedUser;
+    }
+
+    // 가입 시 unique 제약 위반을 어떤 값이 중복됐는지에 맞는 오류로 변환
+    private RuntimeException duplicateAccountException(DataIntegrityViolationException e) {
+        ConstraintViolationException violation = findConstraintViolation(e);
+        if (violation == null || violation.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+            return e;
+        }
+        // MySQL은 제약 이름을 "테이블.제약" 형태로 보고하므로 포함 여부로 판단
+        String constraintName = violation.getConstraintName();
+        if (constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(User.EMAIL_UNIQUE_CONSTRAINT)) {
+            return new RuntimeException("이미 사용 중인 이메일입니다");
+        }
+        // Users의 나머지 unique 제약은 username뿐 (기존 DB는 Hibernate가 붙인 이름이라 이름으로 구분하지 않음)
+        return new RuntimeException("이미 사용 중인 사용자명입니다");
+    }
+
+    private ConstraintViolationException findConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation;
+            }
+        }
+        return null;
     }
 
     // 아이디(username) 찾기
@@ -78,15 +124,17 @@ public class AuthService {
     }
 
     // 로그인
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse login(LoginRequest request) {
         // 사용자 조회
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다"));
 
         // 비밀번호 확인
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
             throw new RuntimeException("비밀번호가 일치하지 않습니다");
         }
+        upgradePasswordHashIfNeeded(user, request.getPassword());
 
         // OTP가 활성화된 경우 일반 로그인 차단
         if (user.getIsOtpEnabled()) {
@@ -100,56 +148,69 @@ public class AuthService {
     }
 
     // 비밀번호 변경
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void changePassword(String username, String currentPassword, String newPassword) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다"));
 
         // 현재 비밀번호 확인
-        if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+        if (!passwordHashingService.matches(currentPassword, user.getPasswordHash())) {
             throw new RuntimeException("현재 비밀번호가 일치하지 않습니다");
         }
 
         // 새 비밀번호로 변경
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
+        user.setPasswordHash(passwordHashingService.encode(newPassword));
         userRepository.save(user);
+        userDetailsService.evict(username);
     }
 
     // 회원 탈퇴
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteUser(String username, String password) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다"));
 
         // 비밀번호 확인
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+        if (!passwordHashingService.matches(password, user.getPasswordHash())) {
             throw new RuntimeException("비밀번호가 일치하지 않습니다");
         }
 
         userRepository.delete(user);
+        accountAvailabilityService.onUserDeleted(user);
+        userDetailsService.evict(username);
     }
 
     // 비밀번호 재설정 (이메일로 임시 비밀번호 발송)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String resetPassword(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("해당 이메일의 사용자를 찾을 수 없습니다"));
 
         // 임시 비밀번호 생성 (8자리 랜덤)
         String tempPassword = generateTempPassword();
+        String tempPasswordHash = passwordHashingService.encode(tempPassword);
 
-        // 임시 비밀번호로 변경
-        user.setPasswordHash(passwordEncoder.encode(tempPassword));
-        userRepository.save(user);
-
-        // 이메일 발송
-        try {
-            emailService.sendPasswordResetEmail(email, user.getUsername(), tempPassword);
-        } catch (Exception e) {
-            log.error("비밀번호 재설정 이메일 발송 실패: {}", e.getMessage());
-            throw new RuntimeException("이메일 발송에 실패했습니다. 잠시 후 다시 시도해주세요.");
-        }
+        // 임시 비밀번호로 변경 + 이메일 발송 예약 (같은 트랜잭션으로 Outbox에 저장, SMTP 발송은 백그라운드)
+        transactionTemplate.executeWithoutResult(status -> {
+            user.setPasswordHash(tempPasswordHash);
+            userRepository.save(user);
+            userDetailsService.evict(user.getUsername());
+            emailService.queuePasswordResetEmail(email, user.getUsername(), tempPassword);
+        });
 
         return "이메일로 임시 비밀번호가 발송되었습니다";  // 실제 비밀번호는 반환하지 않음
     }
 
+    // cost factor가 올라간 경우 로그인 성공 시점에 해시 재생성 (트랜잭션 밖에서 호출)
+    private void upgradePasswordHashIfNeeded(User user, String rawPassword) {
+        if (passwordHashingService.needsUpgrade(user.getPasswordHash())) {
+            user.setPasswordHash(passwordHashingService.encode(rawPassword));
+            userRepository.save(user);
+            userDetailsService.evict(user.getUsername());
+            log.info("비밀번호 해시 업그레이드: {}", user.getUsername());
+        }
+    }
+
     // 임시 비밀번호 생성
     private String generateTempPassword() {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
@@ -166,7 +227,7 @@ public class AuthService {
     /**
      * OTP 설정 초기화 (QR 코드 생성)
      */
-    public OtpSetupResponse setupOtp(String username) throws Exception {
+    public OtpSetupResponse setupOtp(String username, boolean inlineImage) throws Exception {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다"));
 
@@ -181,14 +242,32 @@ public class AuthService {
         // QR 코드 URL 생성
         String qrCodeUrl = otpService.generateQrCodeUrl(username, secret);
 
-        // QR 코드 이미지 생성
-        String qrCodeImage = otpService.generateQrCodeImage(qrCodeUrl);
+        // QR 코드 이미지 생성 (inlineImage=false면 /api/otp/qr-code 로 별도 조회)
+        String qrCodeImage = inlineImage ? otpService.generateQrCodeImage(username, secret) : null;
 
         // 비밀키를 DB에 임시 저장 (아직 활성화 안됨)
         user.setOtpSecret(secret);
         userRepository.save(user);
 
-        return new OtpSetupResponse(secret, qrCodeUrl, qrCodeImage);
+        return new OtpSetupResponse(secret, qrCodeUrl, qrCodeImage, "/api/otp/qr-code");
+    }
+
+    /**
+     * OTP 설정용 QR 코드 이미지 조회 (설정 진행 중일 때만)
+     */
+    @Transactional(readOnly = true)
+    public byte[] getOtpQrCode(String username, OtpService.QrCodeFormat format) throws Exception {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다"));
+
+        if (user.getIsOtpEnabled()) {
+            throw new RuntimeException("OTP가 이미 활성화되어 있습니다");
+        }
+        if (user.getOtpSecret() == null) {
+            throw new RuntimeException("OTP 설정이 초기화되지 않았습니다");
+        }
+
+        return otpService.getQrCode(username, user.getOtpSecret(), format);
     }
 
     /**
@@ -210,6 +289,7 @@ public class AuthService {
         // OTP 활성화
         user.setIsOtpEnabled(true);
         userRepository.save(user);
+        otpService.evictQrCode(username);
     }
 
     /**
@@ -232,20 +312,23 @@ public class AuthService {
         user.setIsOtpEnabled(false);
         user.setOtpSecret(null);
         userRepository.save(user);
+        otpService.evictQrCode(username);
     }
 
     /**
      * OTP를 포함한 로그인
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse loginWithOtp(LoginWithOtpRequest request) {
         // 사용자 조회
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다"));
 
         // 비밀번호 확인
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
             throw new RuntimeException("비밀번호가 일치하지 않습니다");
         }
+        upgradePasswordHashIfNeeded(user, request.getPassword());
 
         // OTP가 활성화되어 있는지 확인
         if (!user.getIsOtpEnabled()) {
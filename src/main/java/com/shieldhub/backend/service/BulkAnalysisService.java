@@ -0,0 +1,261 @@
+package com.shieldhub.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shieldhub.backend.entity.AnalysisResults;
+import com.shieldhub.backend.exception.TooManyRequestsException;
+import com.shieldhub.backend.repository.AnalysisResultsRepository;
+import com.shieldhub.backend.repository.AnalysisVulnerabilitiesRepository;
+import com.shieldhub.backend.util.UrlCanonicalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 대량 URL 분석
+ * URL마다 BULK 우선순위의 PENDING 분석 작업을 등록하고, AnalysisJobWorker가 실행한다.
+ * 응답 스트림은 등록한 작업의 진행 상황만 보고하므로 (끝난 작업을 NDJSON 한 줄씩),
+ * 연결이 끊기거나 요청 제한 시간(spring.mvc.async.request-timeout)이 지나도 작업은 계속 진행되고 결과는 이력에 남는다.
+ * - 등록은 batch-size개씩 트랜잭션을 나눠서 (먼저 커밋된 작업부터 워커가 바로 실행)
+ * - 동시 실행 수는 워커의 대량 분석 슬롯(max-concurrency)과 사용자별 제한(per-user-concurrency)으로 제한
+ * - 사용자별 대기 중인 대량 분석 작업은 max-pending-per-user개까지
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkAnalysisService {
+
+    // 요청 제한 시간보다 이만큼 먼저 스트림을 끝내고 요약을 보냄
+    private static final long STREAM_TIMEOUT_MARGIN_MS = 30_000;
+    // 진행 상황 조회 시 IN 목록 최대 크기
+    private static final int STATUS_QUERY_CHUNK = 500;
+    private static final List<AnalysisResults.AnalysisStatus> FINISHED =
+            List.of(AnalysisResults.AnalysisStatus.COMPLETED, AnalysisResults.AnalysisStatus.FAILED);
+
+    private final AnalysisResultsRepository analysisResultsRepository;
+    private final AnalysisVulnerabilitiesRepository analysisVulnerabilitiesRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.analysis.bulk.max-urls:5000}")
+    private int maxUrls;
+
+    @Value("${app.analysis.bulk.max-pending-per-user:10000}")
+    private int maxPendingPerUser;
+
+    @Value("${app.analysis.bulk.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.analysis.bulk.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${spring.mvc.async.request-timeout:3600000}")
+    private long requestTimeoutMs;
+
+    /**
+     * 입력 URL 정리 (빈 줄/주석(#) 제거, 정규화 기준 중복 제거)
+     */
+    public List<String> normalizeUrls(Collection<String> rawUrls) {
+        return normalizeUrls(rawUrls.iterator());
+    }
+
+    /**
+     * 업로드 파일에서 URL 읽기 (한 줄에 URL 하나)
+     * 서로 다른 URL이 max-urls를 넘는 순간 읽기를 멈추므로 파일 전체를 메모리에 올리지 않는다.
+     */
+    public List<String> readUrls(BufferedReader reader) {
+        try (Stream<String> lines = reader.lines()) {
+            return normalizeUrls(lines.iterator());
+        }
+    }
+
+    private List<String> normalizeUrls(Iterator<String> rawUrls) {
+        Map<String, String> unique = new LinkedHashMap<>();
+        while (rawUrls.hasNext()) {
+            String raw = rawUrls.next();
+            if (raw == null) {
+                continue;
+            }
+            String url = raw.trim();
+            if (url.isEmpty() || url.startsWith("#")) {
+                continue;
+            }
+            unique.putIfAbsent(UrlCanonicalizer.canonicalize(url), url);
+            if (unique.size() > maxUrls) {
+                throw new IllegalArgumentException("한 번에 분석할 수 있는 URL은 최대 " + maxUrls + "개입니다");
+            }
+        }
+
+        if (unique.isEmpty()) {
+            throw new IllegalArgumentException("분석할 URL이 없습니다");
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    /**
+     * URL마다 대량 분석 작업(PENDING, BULK) 등록 후 분석 ID 목록 반환 (입력 순서)
+     */
+    public List<Integer> submit(Integer userId, List<String> urls) {
+        long pending = analysisResultsRepository.countByUserIdAndStatusAndPriority(
+                userId, AnalysisResults.AnalysisStatus.PENDING, AnalysisResults.Priority.BULK);
+        if (pending + urls.size() > maxPendingPerUser) {
+            meterRegistry.counter("analysis.bulk.rejected").increment();
+            throw new TooManyRequestsException("대기 중인 대량 분석이 너무 많습니다 (대기 " + pending + "건). " +
+                    "이전 요청이 끝난 뒤 다시 시도해주세요.");
+        }
+
+        List<Integer> analysisIds = new ArrayList<>(urls.size());
+        for (int from = 0; from < urls.size(); from += batchSize) {
+            List<String> chunk = urls.subList(from, Math.min(from + batchSize, urls.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<AnalysisResults> records = new ArrayList<>(chunk.size());
+                for (String url : chunk) {
+                    AnalysisResults record = new AnalysisResults();
+                    record.setUrlToAnalyze(url);
+                    record.setCanonicalUrl(UrlCanonicalizer.canonicalize(url));
+                    record.setReversedHost(UrlCanonicalizer.reversedHost(url));
+                    record.setUserId(userId);
+                    record.setStatus(AnalysisResults.AnalysisStatus.PENDING);
+                    record.setPriority(AnalysisResults.Priority.BULK);
+                    record.setAttemptCount(0);
+                    records.add(record);
+                }
+                analysisResultsRepository.saveAll(records);
+                records.forEach(record -> analysisIds.add(record.getAnalysisId()));
+                // 커밋 후 워커 깨우기
+                eventPublisher.publishEvent(new AnalysisSubmittedEvent(records.get(records.size() - 1)));
+            });
+        }
+        meterRegistry.counter("analysis.bulk.items", "result", "queued").increment(urls.size());
+        log.info("대량 분석 등록: userId={}, urls={}", userId, urls.size());
+        return analysisIds;
+    }
+
+    /**
+     * 등록한 작업의 진행 상황 스트림 (끝난 작업을 NDJSON으로 기록)
+     */
+    public StreamingResponseBody stream(List<Integer> analysisIds) {
+        return outputStream -> run(analysisIds, outputStream);
+    }
+
+    private void run(List<Integer> analysisIds, OutputStream out) throws IOException {
+        Set<Integer> remaining = new LinkedHashSet<>(analysisIds);
+        long deadline = System.currentTimeMillis() + Math.max(pollIntervalMs, requestTimeoutMs - STREAM_TIMEOUT_MARGIN_MS);
+        int succeeded = 0;
+        int failed = 0;
+
+        // 스트림이 중간에 끊겨도 결과를 찾을 수 있도록 분석 ID부터 전송
+        Map<String, Object> submitted = new LinkedHashMap<>();
+        submitted.put("type", "submitted");
+        submitted.put("total", analysisIds.size());
+        submitted.put("analysisIds", analysisIds);
+        writeLine(out, submitted);
+        out.flush();
+
+        try {
+            // 제한 시간이 지나도 마지막으로 한 번은 조회한 뒤 요약
+            while (!remaining.isEmpty()) {
+                List<Map<String, Object>> lines = new ArrayList<>();
+                for (AnalysisResults result : findFinished(remaining, lines)) {
+                    remaining.remove(result.getAnalysisId());
+                    if (result.getStatus() == AnalysisResults.AnalysisStatus.COMPLETED) {
+                        succeeded++;
+                    } else {
+                        failed++;
+                    }
+                }
+                if (!lines.isEmpty() && !writeBatch(out, lines)) {
+                    log.info("대량 분석 진행 상황 전송 중 클라이언트 연결 끊김: 남은 작업 {}건은 계속 진행", remaining.size());
+                    return;
+                }
+                if (remaining.isEmpty() || System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(pollIntervalMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("대량 분석 진행 상황 전송 중단: 남은 작업 {}건은 계속 진행", remaining.size());
+            return;
+        }
+
+        // 제한 시간 안에 끝나지 않은 작업은 pending으로 보고 (작업은 계속 진행, 결과는 분석 이력에서 조회)
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("type", "summary");
+        summary.put("total", analysisIds.size());
+        summary.put("completed", succeeded);
+        summary.put("failed", failed);
+        summary.put("pending", remaining.size());
+        writeLine(out, summary);
+        out.flush();
+    }
+
+    // 끝난 작업과 결과 줄 (워커가 primary에 기록하므로 쓰기 트랜잭션에서 조회해 복제본 지연을 피함)
+    private List<AnalysisResults> findFinished(Set<Integer> remaining, List<Map<String, Object>> lines) {
+        List<Integer> ids = new ArrayList<>(remaining);
+        List<AnalysisResults> finished = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += STATUS_QUERY_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + STATUS_QUERY_CHUNK, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<AnalysisResults> results = analysisResultsRepository.findByAnalysisIdInAndStatusIn(chunk, FINISHED);
+                if (results.isEmpty()) {
+                    return;
+                }
+                Map<Integer, Integer> vulnerabilityCounts = new HashMap<>();
+                for (Object[] row : analysisVulnerabilitiesRepository.countByAnalysisIds(
+                        results.stream().map(AnalysisResults::getAnalysisId).toList())) {
+                    vulnerabilityCounts.put((Integer) row[0], ((Number) row[1]).intValue());
+                }
+                for (AnalysisResults result : results) {
+                    lines.add(toLine(result, vulnerabilityCounts.getOrDefault(result.getAnalysisId(), 0)));
+                }
+                finished.addAll(results);
+            });
+        }
+        return finished;
+    }
+
+    // 결과 묶음 전송 (클라이언트 연결이 끊겼으면 false)
+    private boolean writeBatch(OutputStream out, List<Map<String, Object>> lines) {
+        try {
+            for (Map<String, Object> line : lines) {
+                writeLine(out, line);
+            }
+            out.flush();
+            return true;
+        } catch (IOException e) {
+            meterRegistry.counter("analysis.bulk.disconnects").increment();
+            return false;
+        }
+    }
+
+    private void writeLine(OutputStream out, Object line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+    }
+
+    private static Map<String, Object> toLine(AnalysisResults result, int vulnerabilityCount) {
+        boolean completed = result.getStatus() == AnalysisResults.AnalysisStatus.COMPLETED;
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", "result");
+        line.put("url", result.getUrlToAnalyze());
+        line.put("analysisId", result.getAnalysisId());
+        line.put("status", result.getStatus());
+        line.put("vulnerabilityCount", completed ? vulnerabilityCount : null);
+        line.put("errorMessage", result.getErrorMessage());
+        return line;
+    }
+}
@@ -1,30 +1,95 @@
 package com.shieldhub.backend.service;
 
+import com.shieldhub.backend.config.CacheConfig;
+import com.shieldhub.backend.config.SecurityConfig;
 import com.shieldhub.backend.entity.User;
 import com.shieldhub.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
+    // actuator 접근을 허용할 관리자 사용자명 (쉼표 구분)
+    @Value("${app.security.admin-usernames:}")
+    private String adminUsernamesConfig;
+
+    private Set<String> adminUsernames;
+
+    @PostConstruct
+    public void init() {
+        adminUsernames = Arrays.stream(adminUsernamesConfig.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // 요청마다 JWT 필터가 호출하므로 캐시 (없는 사용자는 캐시하지 않음)
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다: " + username));
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPasswordHash(),
-                new ArrayList<>()
-        );
+        Cache cache = userDetailsCache();
+        UserDetails cached = cache.get(username, UserDetails.class);
+        if (cached == null) {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다: " + username));
+
+            cached = new org.springframework.security.core.userdetails.User(
+                    user.getUsername(),
+                    user.getPasswordHash(),
+                    authoritiesOf(user.getUsername())
+            );
+            cache.put(username, cached);
+        }
+        // 인증 과정에서 자격 증명이 지워질 수 있으므로(eraseCredentials) 캐시된 객체 대신 복사본 반환
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+
+    private List<GrantedAuthority> authoritiesOf(String username) {
+        if (adminUsernames.contains(username)) {
+            return List.of(new SimpleGrantedAuthority("ROLE_" + SecurityConfig.ADMIN_ROLE));
+        }
+        return List.of();
+    }
+
+    /**
+     * 사용자 정보 변경 시 캐시 제거 (트랜잭션 안에서 호출하면 커밋 후 제거)
+     * 이 서버의 로컬 캐시만 지우므로 다른 서버에는 ttl-seconds 동안 이전 정보(탈퇴 사용자 포함)가 남을 수 있다.
+     * 여러 서버로 운영할 때는 ttl-seconds를 허용 가능한 지연만큼 짧게 유지한다.
+     */
+    public void evict(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userDetailsCache().evict(username);
+                }
+            });
+        } else {
+            userDetailsCache().evict(username);
+        }
+    }
+
+    private Cache userDetailsCache() {
+        return cacheManager.getCache(CacheConfig.USER_DETAILS);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.EmailOutbox;
+import com.shieldhub.backend.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox에 저장된 이메일을 백그라운드에서 발송
+ * - 배치 단위로 선점(SKIP LOCKED)하여 여러 인스턴스가 동시에 돌아도 중복 발송하지 않음
+ * - 한 배치는 JavaMailSender.send(MimeMessage...) 한 번으로 보내 SMTP 연결을 재사용
+ * - 실패 시 지수 백오프로 재시도, 최대 횟수 초과 시 FAILED
+ * - 선점 임대 시간은 배치 전체가 SMTP 타임아웃에 걸리는 최악의 경우보다 길게 잡아,
+ *   발송 중인 배치를 다른 인스턴스가 다시 선점해 중복 발송하지 않도록 함
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    // 메시지 하나당 SMTP 응답 대기 횟수 (MAIL FROM, RCPT TO, DATA, 본문 끝)
+    private static final int SMTP_REPLIES_PER_MESSAGE = 4;
+    // 연결 시 응답 대기 횟수 (인사, EHLO, STARTTLS, EHLO, AUTH)
+    private static final int SMTP_REPLIES_PER_CONNECTION = 5;
+    private static final long LEASE_MARGIN_SECONDS = 30;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.mail.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${spring.mail.properties.mail.smtp.connectiontimeout:10000}")
+    private long smtpConnectionTimeoutMs;
+
+    @Value("${spring.mail.properties.mail.smtp.timeout:10000}")
+    private long smtpTimeoutMs;
+
+    @Value("${spring.mail.properties.mail.smtp.writetimeout:10000}")
+    private long smtpWriteTimeoutMs;
+
+    // 실제 적용하는 임대 시간 (lease-seconds와 최악의 배치 발송 시간 중 큰 값)
+    private long effectiveLeaseSeconds;
+
+    @PostConstruct
+    public void init() {
+        long worstCaseMs = smtpConnectionTimeoutMs + SMTP_REPLIES_PER_CONNECTION * smtpTimeoutMs
+                + batchSize * (smtpWriteTimeoutMs + SMTP_REPLIES_PER_MESSAGE * smtpTimeoutMs);
+        long worstCaseSeconds = TimeUnit.MILLISECONDS.toSeconds(worstCaseMs) + LEASE_MARGIN_SECONDS;
+        effectiveLeaseSeconds = Math.max(leaseSeconds, worstCaseSeconds);
+        if (effectiveLeaseSeconds > leaseSeconds) {
+            log.info("Outbox 임대 시간을 최악의 배치 발송 시간에 맞춰 {}초로 적용 (설정값 {}초)",
+                    effectiveLeaseSeconds, leaseSeconds);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        List<EmailOutbox> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    // 1. 발송 대상 선점 (짧은 트랜잭션, SMTP 통신은 트랜잭션 밖에서)
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(now, batchSize);
+            for (EmailOutbox outbox : due) {
+                outbox.setStatus(EmailOutbox.OutboxStatus.SENDING);
+                outbox.setLockedUntil(now.plusSeconds(effectiveLeaseSeconds));
+            }
+            return emailOutboxRepository.saveAll(due);
+        });
+    }
+
+    // 2. 배치 발송 후 결과 반영
+    private void sendBatch(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        Map<EmailOutbox, String> failures = new IdentityHashMap<>();
+
+        for (EmailOutbox outbox : batch) {
+            try {
+                String htmlContent = emailService.readHtmlContent(outbox);
+                messages.put(emailService.createHtmlMessage(outbox.getRecipient(), outbox.getSubject(), htmlContent), outbox);
+            } catch (Exception e) {
+                failures.put(outbox, e.getMessage());
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                // 메시지별 실패 정보가 있으면 해당 메시지만 실패 처리
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(outbox -> failures.put(outbox, e.getMessage()));
+                } else {
+                    e.getFailedMessages().forEach((message, cause) -> {
+                        EmailOutbox outbox = messages.get(message);
+                        if (outbox != null) {
+                            failures.put(outbox, cause.getMessage());
+                        }
+                    });
+                }
+            } catch (Exception e) {
+                messages.values().forEach(outbox -> failures.put(outbox, e.getMessage()));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (EmailOutbox outbox : batch) {
+                String error = failures.get(outbox);
+                if (error == null) {
+                    outbox.setStatus(EmailOutbox.OutboxStatus.SENT);
+                    outbox.setSentAt(now);
+                    outbox.setHtmlContent(null);
+                    outbox.setLastError(null);
+                    meterRegistry.counter("email.outbox.sent").increment();
+                } else {
+                    markFailedAttempt(outbox, error, now);
+                }
+                outbox.setLockedUntil(null);
+            }
+            emailOutboxRepository.saveAll(batch);
+        });
+    }
+
+    private void markFailedAttempt(EmailOutbox outbox, String error, LocalDateTime now) {
+        int attempts = outbox.getAttempts() + 1;
+        outbox.setAttempts(attempts);
+        outbox.setLastError(error != null && error.length() > 255 ? error.substring(0, 255) : error);
+
+        if (attempts >= maxAttempts) {
+            outbox.setStatus(EmailOutbox.OutboxStatus.FAILED);
+            outbox.setHtmlContent(null);
+            meterRegistry.counter("email.outbox.failed").increment();
+            log.error("이메일 발송 최종 실패 ({}회): {} - {}", attempts, outbox.getRecipient(), error);
+        } else {
+            long backoff = Math.min(maxBackoffSeconds, initialBackoffSeconds << (attempts - 1));
+            outbox.setStatus(EmailOutbox.OutboxStatus.PENDING);
+            outbox.setNextAttemptAt(now.plusSeconds(backoff));
+            meterRegistry.counter("email.outbox.retried").increment();
+            log.warn("이메일 발송 실패, {}초 후 재시도 ({}회): {} - {}", backoff, attempts, outbox.getRecipient(), error);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.shieldhub.backend.service;
 
+import com.shieldhub.backend.entity.EmailOutbox;
+import com.shieldhub.backend.repository.EmailOutboxRepository;
+import com.shieldhub.backend.util.EncryptionUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +13,8 @@ import org.springframework.stereotype.Service;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
 
 @Slf4j
 @Service
@@ -17,6 +22,12 @@ import jakarta.mail.internet.MimeMessage;
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EncryptionUtil encryptionUtil;
+
+    private static final String PASSWORD_RESET_SUBJECT = "[ShieldHub] 임시 비밀번호 발급 안내";
+    // Outbox 본문 암호화 표시 (표시가 없는 행은 암호화 도입 전에 저장된 평문)
+    private static final String ENCRYPTED_CONTENT_PREFIX = "enc:";
 
     @Value("${app.mail.from:noreply@shieldhub.com}")
     private String fromEmail;
@@ -48,13 +59,7 @@ public class EmailService {
      */
     public void sendHtmlEmail(String to, String subject, String htmlContent) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail, fromName);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
+            MimeMessage message = createHtmlMessage(to, subject, htmlContent);
 
             mailSender.send(message);
             log.info("HTML 이메일 발송 완료: {}", to);
@@ -67,13 +72,69 @@ public class EmailService {
         }
     }
 
+    /**
+     * HTML 메시지 생성 (즉시 발송 / Outbox 발송 공용)
+     */
+    public MimeMessage createHtmlMessage(String to, String subject, String htmlContent)
+            throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setFrom(fromEmail, fromName);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        return message;
+    }
+
+    /**
+     * HTML 이메일 발송 예약 (Outbox 테이블에 저장, 호출한 트랜잭션과 함께 커밋)
+     * 실제 발송은 EmailOutboxDispatcher가 백그라운드에서 처리
+     * 본문(임시 비밀번호 포함)은 마스터키로 암호화해 저장하고, 발송이 끝나면 비운다.
+     */
+    public void queueHtmlEmail(String to, String subject, String htmlContent) {
+        EmailOutbox outbox = new EmailOutbox();
+        outbox.setRecipient(to);
+        outbox.setSubject(subject);
+        try {
+            outbox.setHtmlContent(ENCRYPTED_CONTENT_PREFIX + encryptionUtil.encryptText(htmlContent));
+        } catch (Exception e) {
+            throw new RuntimeException("이메일 발송 예약에 실패했습니다", e);
+        }
+        outbox.setStatus(EmailOutbox.OutboxStatus.PENDING);
+        outbox.setAttempts(0);
+        outbox.setNextAttemptAt(LocalDateTime.now());
+        emailOutboxRepository.save(outbox);
+        log.info("이메일 발송 예약: {}", to);
+    }
+
+    /**
+     * Outbox에 저장된 본문 복호화 (발송 시 사용)
+     */
+    public String readHtmlContent(EmailOutbox outbox) throws Exception {
+        String stored = outbox.getHtmlContent();
+        if (stored == null || !stored.startsWith(ENCRYPTED_CONTENT_PREFIX)) {
+            return stored;
+        }
+        return encryptionUtil.decryptText(stored.substring(ENCRYPTED_CONTENT_PREFIX.length()));
+    }
+
     /**
      * 비밀번호 재설정 이메일 발송
      */
     public void sendPasswordResetEmail(String to, String username, String tempPassword) {
-        String subject = "[ShieldHub] 임시 비밀번호 발급 안내";
+        sendHtmlEmail(to, PASSWORD_RESET_SUBJECT, buildPasswordResetContent(username, tempPassword));
+    }
 
-        String htmlContent = String.format("""
+    /**
+     * 비밀번호 재설정 이메일 발송 예약
+     */
+    public void queuePasswordResetEmail(String to, String username, String tempPassword) {
+        queueHtmlEmail(to, PASSWORD_RESET_SUBJECT, buildPasswordResetContent(username, tempPassword));
+    }
+
+    private String buildPasswordResetContent(String username, String tempPassword) {
+        return String.format("""
             <!DOCTYPE html>
             <html>
             <head>
@@ -107,8 +168,6 @@ public class EmailService {
             </body>
             </html>
             """, username, tempPassword);
-
-        sendHtmlEmail(to, subject, htmlContent);
     }
 
     /**
@@ -0,0 +1,458 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.FileHistory;
+import com.shieldhub.backend.repository.FileHistoryRepository;
+import com.shieldhub.backend.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 파일 암복호화 감사 이력(FileHistory) 비동기 기록
+ * 요청 스레드는 이벤트를 잠금 없는 링 버퍼에 넣고 바로 돌아가며, 전용 스레드 하나가 모아서 저장한다.
+ * - 꺼낸 이벤트는 먼저 로컬 스풀(세그먼트 파일, 줄마다 CRC)에 순번과 함께 append + fsync
+ * - batch-size개가 모이거나 가장 오래된 이벤트가 max-flush-latency-ms를 넘으면 트랜잭션 하나로 저장(group commit)
+ * - 같은 트랜잭션에서 FileAuditCheckpoint(스풀 ID, 마지막 순번)를 갱신하므로,
+ *   비정상 종료 후 재시작 시 체크포인트 이후 순번만 다시 저장한다 (중복/유실 없음)
+ * - 스풀 쓰기가 실패하면 일부만 쓰인 줄 뒤에 이어 쓰지 않고 새 세그먼트로 넘겨 다시 기록
+ * - 링 버퍼가 가득 차거나 비동기 기록을 끄면 별도 트랜잭션으로 바로 저장 (실패해도 커밋된 요청에는 전파하지 않고 집계만)
+ * 요청 트랜잭션 커밋 후 링 버퍼에 넣으므로, 커밋 직후 스풀에 쓰기 전(수 ms)의 프로세스 종료 시에만 유실될 수 있다.
+ */
+@Slf4j
+@Service
+public class FileAuditWriter {
+
+    private static final String SPOOL_ID_FILE = "spool.id";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final String CHECKPOINT_SELECT_SQL =
+            "SELECT last_sequence FROM FileAuditCheckpoint WHERE spool_id = ?";
+    private static final String CHECKPOINT_UPSERT_SQL =
+            "INSERT INTO FileAuditCheckpoint (spool_id, last_sequence, updated_at) VALUES (?, ?, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE last_sequence = GREATEST(last_sequence, VALUES(last_sequence)), " +
+            "updated_at = VALUES(updated_at)";
+
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+
+    private final FileHistoryRepository fileHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNewTransaction;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.file.audit.async-enabled:true}")
+    private boolean asyncEnabled;
+
+    @Value("${app.file.audit.spool-dir:./data/audit-spool}")
+    private String spoolDir;
+
+    @Value("${app.file.audit.ring-capacity:8192}")
+    private int ringCapacity;
+
+    @Value("${app.file.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.file.audit.max-flush-latency-ms:200}")
+    private long maxFlushLatencyMs;
+
+    @Value("${app.file.audit.fsync:true}")
+    private boolean fsync;
+
+    @Value("${app.file.audit.segment-max-bytes:8388608}")
+    private long segmentMaxBytes;
+
+    @Value("${app.file.audit.max-pending:100000}")
+    private int maxPending;
+
+    private volatile MpscRingBuffer<AuditEvent> ring;
+    private volatile Thread writerThread;
+    private volatile boolean running;
+
+    // 이하 writer 스레드 전용 (시작 전 복구 단계에서만 다른 스레드가 접근)
+    private String spoolId;
+    private long nextSequence;
+    private long committedSequence;
+    private final List<SpooledEvent> pending = new ArrayList<>();
+    private long oldestPendingNanos;
+    private final List<Segment> closedSegments = new ArrayList<>();
+    private Segment activeSegment;
+    private FileChannel activeChannel;
+    private long retryAtNanos;
+    private long retryBackoffMs = 1000;
+
+    private Timer flushTimer;
+
+    public FileAuditWriter(FileHistoryRepository fileHistoryRepository,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.fileHistoryRepository = fileHistoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 감사 이벤트 기록 (트랜잭션 안에서 호출하면 커밋된 뒤에만 기록)
+     */
+    public void record(Integer fileId, FileHistory.ActionType actionType) {
+        AuditEvent event = new AuditEvent(fileId, actionType, LocalDateTime.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(AuditEvent event) {
+        MpscRingBuffer<AuditEvent> buffer = ring;
+        if (running && buffer != null && buffer.offer(event)) {
+            meterRegistry.counter("file.audit.events", "result", "queued").increment();
+            LockSupport.unpark(writerThread);
+            return;
+        }
+        // 링 버퍼가 가득 찼거나 writer가 동작 중이 아님 (비활성화 / 시작 전 / 종료 후) → 바로 저장
+        // (afterCommit 시점에는 기존 트랜잭션이 끝났으므로 새 트랜잭션 필요)
+        // 요청은 이미 커밋되었으므로 실패해도 예외를 던지지 않음 (file.audit.events{result=failed}로 집계)
+        try {
+            requiresNewTransaction.executeWithoutResult(status -> fileHistoryRepository.save(event.toEntity()));
+            meterRegistry.counter("file.audit.events", "result", "direct").increment();
+        } catch (RuntimeException e) {
+            meterRegistry.counter("file.audit.events", "result", "failed").increment();
+            log.error("감사 이력 저장 실패 (fileId={}, {}): {}", event.fileId(), event.actionType(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!asyncEnabled) {
+            return;
+        }
+        recover();
+
+        ring = new MpscRingBuffer<>(ringCapacity);
+        flushTimer = Timer.builder("file.audit.flush.time")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("file.audit.queued", ring, MpscRingBuffer::size).register(meterRegistry);
+
+        log.info("파일 감사 이력 writer 시작: spool={}, 재처리 대기 {}건", spoolId, pending.size());
+        running = true;
+        Thread thread = new Thread(this::runLoop, "file-audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // 스풀 ID / 체크포인트 확인 후 커밋되지 않은 이벤트를 pending으로 복구
+    private void recover() throws IOException {
+        Path dir = Paths.get(spoolDir);
+        Files.createDirectories(dir);
+
+        Path idFile = dir.resolve(SPOOL_ID_FILE);
+        if (Files.exists(idFile)) {
+            spoolId = Files.readString(idFile, StandardCharsets.UTF_8).trim();
+        } else {
+            spoolId = UUID.randomUUID().toString();
+            Files.writeString(idFile, spoolId, StandardCharsets.UTF_8);
+        }
+
+        List<Long> checkpoint = jdbcTemplate.queryForList(CHECKPOINT_SELECT_SQL, Long.class, spoolId);
+        committedSequence = checkpoint.isEmpty() ? 0 : checkpoint.get(0);
+        long maxSequence = committedSequence;
+        // 쓰기 실패 후 새 세그먼트에 다시 기록한 이벤트는 이전 세그먼트에도 있을 수 있으므로 순번으로 중복 제거
+        long recoveredSequence = committedSequence;
+
+        List<Path> segmentFiles;
+        try (Stream<Path> files = Files.list(dir)) {
+            segmentFiles = files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : segmentFiles) {
+            long lastSequence = 0;
+            for (SpooledEvent spooled : readSegment(file)) {
+                lastSequence = Math.max(lastSequence, spooled.sequence);
+                if (spooled.sequence > recoveredSequence) {
+                    pending.add(spooled);
+                    recoveredSequence = spooled.sequence;
+                }
+            }
+            maxSequence = Math.max(maxSequence, lastSequence);
+            if (lastSequence <= committedSequence) {
+                Files.deleteIfExists(file);
+            } else {
+                closedSegments.add(new Segment(file, lastSequence));
+            }
+        }
+
+        nextSequence = maxSequence + 1;
+        oldestPendingNanos = System.nanoTime();
+        // 이전 실행의 마지막 세그먼트는 끝이 잘렸을 수 있으므로 이어 쓰지 않고 새 세그먼트 사용
+        openSegment();
+    }
+
+    private void runLoop() {
+        List<AuditEvent> drained = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping = !running;
+            drained.clear();
+            if (pending.size() < maxPending) {
+                ring.drainTo(drained, batchSize);
+            }
+            if (!drained.isEmpty()) {
+                try {
+                    spool(drained);
+                } catch (IOException e) {
+                    // 스풀에 못 쓴 이벤트도 pending에는 있으므로 DB 저장은 그대로 진행
+                    log.error("감사 이력 스풀 기록 실패: {}", e.getMessage());
+                }
+            }
+
+            boolean due = !pending.isEmpty() && (stopping || pending.size() >= batchSize
+                    || System.nanoTime() - oldestPendingNanos >= TimeUnit.MILLISECONDS.toNanos(maxFlushLatencyMs));
+            boolean committed = false;
+            if (due && (stopping || System.nanoTime() >= retryAtNanos)) {
+                committed = commit();
+            }
+
+            if (stopping && ring.size() == 0 && (pending.isEmpty() || !committed)) {
+                break;
+            }
+            if (drained.isEmpty() && !committed) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(1, Math.min(maxFlushLatencyMs, 50))));
+            }
+        }
+        closeActiveSegment();
+        if (!pending.isEmpty()) {
+            log.warn("종료 시 저장하지 못한 감사 이력 {}건은 다음 시작 시 스풀에서 다시 저장", pending.size());
+        }
+    }
+
+    private void spool(List<AuditEvent> events) throws IOException {
+        if (pending.isEmpty()) {
+            oldestPendingNanos = System.nanoTime();
+        }
+        StringBuilder lines = new StringBuilder(events.size() * 64);
+        for (AuditEvent event : events) {
+            SpooledEvent spooled = new SpooledEvent(nextSequence++, event);
+            pending.add(spooled);
+            lines.append(spooled.toLine()).append('\n');
+        }
+
+        byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        // 쓰기 전에 갱신해 두어야 실패한 세그먼트도 이 순번들이 커밋될 때까지 지워지지 않음
+        activeSegment.lastSequence = nextSequence - 1;
+        try {
+            writeActive(bytes);
+        } catch (IOException e) {
+            // 일부만 쓰인 줄 뒤에 이어 쓰면 복구 시 그 뒤 줄이 모두 버려지므로 새 세그먼트에 다시 기록
+            meterRegistry.counter("file.audit.spool.failures").increment();
+            log.warn("감사 이력 스풀 기록 실패, 새 세그먼트로 전환 후 재기록: {}", e.getMessage());
+            rollSegment();
+            try {
+                writeActive(bytes);
+            } catch (IOException retryFailure) {
+                // 다음 묶음도 깨끗한 세그먼트에서 시작 (이번 묶음은 pending에 있으므로 DB 저장은 진행)
+                rollSegment();
+                throw retryFailure;
+            }
+        }
+        if (activeChannel.size() >= segmentMaxBytes) {
+            rollSegment();
+        }
+    }
+
+    private void writeActive(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            activeChannel.write(buffer);
+        }
+        if (fsync) {
+            activeChannel.force(false);
+        }
+    }
+
+    // pending 앞쪽 최대 batch-size개를 체크포인트와 함께 한 트랜잭션으로 저장
+    private boolean commit() {
+        List<SpooledEvent> chunk = pending.subList(0, Math.min(pending.size(), batchSize));
+        long lastSequence = chunk.get(chunk.size() - 1).sequence;
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                fileHistoryRepository.saveAll(chunk.stream().map(spooled -> spooled.event.toEntity()).toList());
+                jdbcTemplate.update(CHECKPOINT_UPSERT_SQL, spoolId, lastSequence);
+            });
+        } catch (RuntimeException e) {
+            meterRegistry.counter("file.audit.flush.failures").increment();
+            log.warn("감사 이력 저장 실패 ({}건, {}ms 후 재시도): {}", chunk.size(), retryBackoffMs, e.getMessage());
+            retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryBackoffMs);
+            retryBackoffMs = Math.min(retryBackoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            return false;
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("file.audit.flushed").increment(chunk.size());
+
+        chunk.clear();
+        committedSequence = lastSequence;
+        oldestPendingNanos = System.nanoTime();
+        retryBackoffMs = 1000;
+        deleteCommittedSegments();
+        return true;
+    }
+
+    private void deleteCommittedSegments() {
+        closedSegments.removeIf(segment -> {
+            if (segment.lastSequence > committedSequence) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                log.warn("감사 이력 스풀 세그먼트 삭제 실패: {}", segment.path);
+            }
+            return true;
+        });
+    }
+
+    // 현재 세그먼트를 닫고 새 세그먼트 열기 (닫은 세그먼트는 커밋될 때까지 보관)
+    private void rollSegment() throws IOException {
+        closeActiveSegment();
+        if (!closedSegments.contains(activeSegment)) {
+            closedSegments.add(activeSegment);
+        }
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        Path path = Paths.get(spoolDir, String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        activeSegment = new Segment(path, nextSequence - 1);
+    }
+
+    private void closeActiveSegment() {
+        try {
+            activeChannel.close();
+        } catch (IOException e) {
+            log.warn("감사 이력 스풀 세그먼트 닫기 실패: {}", activeSegment.path);
+        }
+    }
+
+    // 세그먼트 읽기 (CRC가 맞지 않는 줄부터는 기록 중 끊긴 것으로 보고 무시)
+    private List<SpooledEvent> readSegment(Path file) throws IOException {
+        List<SpooledEvent> events = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            SpooledEvent spooled = SpooledEvent.parse(line);
+            if (spooled == null) {
+                log.warn("감사 이력 스풀 손상 구간 무시: {}", file);
+                break;
+            }
+            events.add(spooled);
+        }
+        return events;
+    }
+
+    private record AuditEvent(Integer fileId, FileHistory.ActionType actionType, LocalDateTime timestamp) {
+        FileHistory toEntity() {
+            FileHistory history = new FileHistory();
+            history.setFileId(fileId);
+            history.setActionType(actionType);
+            history.setTimestamp(timestamp);
+            return history;
+        }
+    }
+
+    // 스풀 한 줄: 순번 \t fileId \t 작업 유형 \t 시각 \t CRC32
+    private record SpooledEvent(long sequence, AuditEvent event) {
+        String toLine() {
+            String body = sequence + "\t" + event.fileId + "\t" + event.actionType + "\t" + event.timestamp;
+            return body + "\t" + Long.toHexString(crc(body));
+        }
+
+        static SpooledEvent parse(String line) {
+            int lastTab = line.lastIndexOf('\t');
+            if (lastTab < 0) {
+                return null;
+            }
+            String body = line.substring(0, lastTab);
+            String[] fields = body.split("\t");
+            try {
+                if (fields.length != 4 || Long.parseLong(line.substring(lastTab + 1), 16) != crc(body)) {
+                    return null;
+                }
+                AuditEvent event = new AuditEvent(Integer.valueOf(fields[1]),
+                        FileHistory.ActionType.valueOf(fields[2]), LocalDateTime.parse(fields[3]));
+                return new SpooledEvent(Long.parseLong(fields[0]), event);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static long crc(String body) {
+            CRC32 crc = new CRC32();
+            crc.update(body.getBytes(StandardCharsets.UTF_8));
+            return crc.getValue();
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private long lastSequence;
+
+        private Segment(Path path, long lastSequence) {
+            this.path = path;
+            this.lastSequence = lastSequence;
+        }
+    }
+}
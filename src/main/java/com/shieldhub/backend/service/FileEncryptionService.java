@@ -2,7 +2,6 @@ package com.shieldhub.backend.service;
 
 import com.shieldhub.backend.entity.FileHistory;
 import com.shieldhub.backend.entity.FileMetadata;
-import com.shieldhub.backend.repository.FileHistoryRepository;
 import com.shieldhub.backend.repository.FileMetadataRepository;
 import com.shieldhub.backend.util.ChaosKeyGenerator;
 import com.shieldhub.backend.util.EncryptionUtil;
@@ -26,7 +25,7 @@ import java.util.UUID;
 public class FileEncryptionService {
 
     private final FileMetadataRepository fileMetadataRepository;
-    private final FileHistoryRepository fileHistoryRepository;
+    private final FileAuditWriter fileAuditWriter;
     private final EncryptionUtil encryptionUtil;
     private final ChaosKeyGenerator chaosKeyGenerator; // 카오스 키 생성기는 유지
 
@@ -34,13 +33,10 @@ public class FileEncryptionService {
     private String uploadDir;
 
     // 파일 암호화 및 저장 (Only Chaos Encryption -> .enc)
-    public Map<String, Object> encryptAndSaveFile(MultipartFile file, Integer userId) throws Exception {
-        // 1. 원본 파일 데이터 읽기
-        byte[] fileData = file.getBytes();
-
-        // 2. SHA-256 해시 생성 (무결성 검증용)
-        String sha256Hash = encryptionUtil.generateSHA256(fileData);
-
+    // 1. 원본 파일 데이터와 2. SHA-256 해시(무결성 검증용)는 호출 측에서 미리 구해 전달
+    //    (Idempotency fingerprint 계산에 쓴 해시를 다시 계산하지 않도록)
+    public Map<String, Object> encryptAndSaveFile(MultipartFile file, byte[] fileData, String sha256Hash,
+                                                  Integer userId) throws Exception {
         // 3. 카오스 이론(로지스틱 맵)을 적용한 키 생성 [유지]
         // 시드: 원본파일명 + 사용자ID + 나노초
         String seedData = file.getOriginalFilename() + userId + System.nanoTime();
@@ -69,11 +65,8 @@ public class FileEncryptionService {
 
         FileMetadata savedMetadata = fileMetadataRepository.save(metadata);
 
-        // 7. 이력 저장
-        FileHistory history = new FileHistory();
-        history.setFileId(savedMetadata.getFileId());
-        history.setActionType(FileHistory.ActionType.ENCRYPTION);
-        fileHistoryRepository.save(history);
+        // 7. 이력 저장 (커밋 후 비동기 기록)
+        fileAuditWriter.record(savedMetadata.getFileId(), FileHistory.ActionType.ENCRYPTION);
 
         // 8. 키 암호화 (마스터키 이용)
         String encryptedKey = encryptionUtil.encryptKey(fileKey);
@@ -90,6 +83,20 @@ public class FileEncryptionService {
         return response;
     }
 
+    // 원본 파일 SHA-256 해시 (무결성 검증 / Idempotency fingerprint 용)
+    public String sha256(byte[] fileData) throws Exception {
+        return encryptionUtil.generateSHA256(fileData);
+    }
+
+    // 저장된 암호화 파일(.enc) 읽기 (Idempotency 재시도 응답 구성용)
+    // 방금 저장한 메타데이터를 읽으므로 읽기 복제본이 아닌 primary에서 조회 (readOnly로 바꾸지 말 것)
+    @Transactional
+    public byte[] readEncryptedFile(Integer fileId) throws Exception {
+        FileMetadata metadata = fileMetadataRepository.findById(fileId)
+                .orElseThrow(() -> new RuntimeException("파일을 찾을 수 없습니다"));
+        return Files.readAllBytes(Paths.get(metadata.getFilePath()));
+    }
+
     // 파일 복호화 및 다운로드 (DB 저장된 파일 대상)
     public Map<String, Object> decryptFile(Integer fileId, String encryptedKeyString) throws Exception {
         // 메타데이터 조회
@@ -112,11 +119,8 @@ public class FileEncryptionService {
             throw new RuntimeException("파일 무결성 검증 실패: 파일이 변조되었습니다.");
         }
 
-        // 이력 저장
-        FileHistory history = new FileHistory();
-        history.setFileId(fileId);
-        history.setActionType(FileHistory.ActionType.DECRYPTION);
-        fileHistoryRepository.save(history);
+        // 이력 저장 (커밋 후 비동기 기록)
+        fileAuditWriter.record(fileId, FileHistory.ActionType.DECRYPTION);
 
         // 응답 데이터
         Map<String, Object> response = new HashMap<>();
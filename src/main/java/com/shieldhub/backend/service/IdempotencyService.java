@@ -0,0 +1,247 @@
+package com.shieldhub.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shieldhub.backend.exception.IdempotencyConflictException;
+import com.shieldhub.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 처리 (같은 키로 재시도된 요청은 다시 실행하지 않음)
+ * 키는 DB(IdempotencyKeys)에 저장하므로 서버가 여러 대여도 재시도가 어느 서버로 가든 결과가 같다.
+ * - (용도, 사용자, 키)를 PK로 INSERT해서 선점한 요청만 실행하고, 완료되면 응답(JSON)을 TTL 동안 보관
+ * - 처리 중에 온 재시도는 in-flight-wait-ms까지 행을 다시 읽으며 완료를 기다리고, 그래도 처리 중이면 409
+ * - 같은 키에 다른 요청 내용(fingerprint)이 오면 422
+ * - 실패한 요청은 행을 지우므로 재시도 시 다시 실행
+ * - 선점한 서버가 죽으면 in-progress-lease-ms 후 다른 요청이 다시 선점 (claim_token으로 이전 선점자의 완료/해제는 무시)
+ * - 사용자별 보관 개수는 max-entries-per-user로 제한 (넘으면 키 없이 실행하지 않고 429로 거부)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String SELECT_SQL =
+            "SELECT fingerprint, status, response, expires_at FROM IdempotencyKeys " +
+            "WHERE scope = ? AND user_id = ? AND idempotency_key = ?";
+    private static final String COUNT_PER_USER_SQL =
+            "SELECT COUNT(*) FROM IdempotencyKeys WHERE user_id = ? AND expires_at > ?";
+    private static final String CLAIM_SQL =
+            "INSERT INTO IdempotencyKeys " +
+            "(scope, user_id, idempotency_key, fingerprint, claim_token, status, expires_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, 'IN_PROGRESS', ?, ?)";
+    private static final String COMPLETE_SQL =
+            "UPDATE IdempotencyKeys SET status = 'COMPLETED', response = ?, expires_at = ? " +
+            "WHERE scope = ? AND user_id = ? AND idempotency_key = ? AND claim_token = ?";
+    private static final String RELEASE_SQL =
+            "DELETE FROM IdempotencyKeys WHERE scope = ? AND user_id = ? AND idempotency_key = ? AND claim_token = ?";
+    private static final String DELETE_EXPIRED_KEY_SQL =
+            "DELETE FROM IdempotencyKeys WHERE scope = ? AND user_id = ? AND idempotency_key = ? AND expires_at <= ?";
+    private static final String SWEEP_SQL =
+            "DELETE FROM IdempotencyKeys WHERE expires_at <= ? LIMIT ?";
+
+    private static final long MIN_POLL_MS = 50;
+    private static final long MAX_POLL_MS = 500;
+    private static final TypeReference<Map<String, Object>> RESPONSE_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${app.idempotency.max-entries-per-user:100}")
+    private int maxEntriesPerUser;
+
+    @Value("${app.idempotency.in-flight-wait-ms:30000}")
+    private long inFlightWaitMs;
+
+    @Value("${app.idempotency.in-progress-lease-ms:600000}")
+    private long inProgressLeaseMs;
+
+    @Value("${app.idempotency.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+
+    /**
+     * 키가 없으면 그냥 실행, 있으면 최초 1회만 실행 (응답은 JSON으로 보관하므로 재시도 응답의 값은 JSON 타입으로 돌아옴)
+     */
+    public Outcome<Map<String, Object>> execute(String scope, Integer userId, String idempotencyKey,
+                                                String fingerprint, Supplier<Map<String, Object>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return new Outcome<>(action.get(), false);
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " 헤더는 " + MAX_KEY_LENGTH + "자 이하여야 합니다");
+        }
+
+        String fingerprintHash = sha256(fingerprint);
+        long deadline = System.currentTimeMillis() + inFlightWaitMs;
+        long pollMs = MIN_POLL_MS;
+        while (true) {
+            StoredKey stored = find(scope, userId, idempotencyKey);
+
+            // 1. 키가 없거나 만료됨: 선점에 성공하면 직접 실행 (다른 서버가 먼저 선점했으면 다시 조회)
+            if (stored == null || stored.isExpired()) {
+                if (stored != null) {
+                    jdbcTemplate.update(DELETE_EXPIRED_KEY_SQL, scope, userId, idempotencyKey, LocalDateTime.now());
+                }
+                String claimToken = claim(scope, userId, idempotencyKey, fingerprintHash);
+                if (claimToken != null) {
+                    return run(scope, userId, idempotencyKey, claimToken, action);
+                }
+                continue;
+            }
+
+            // 2. 재시도: 같은 요청인지 확인 후 보관된 결과로 응답
+            if (!stored.fingerprint().equals(fingerprintHash)) {
+                meterRegistry.counter("idempotency.requests", "scope", scope, "result", "mismatch").increment();
+                throw new IdempotencyConflictException("같은 " + HEADER + "로 다른 요청을 보낼 수 없습니다", false);
+            }
+            if (stored.completed()) {
+                meterRegistry.counter("idempotency.requests", "scope", scope, "result", "replayed").increment();
+                return new Outcome<>(readResponse(stored.response()), true);
+            }
+
+            // 3. 처리 중: 완료(또는 실패로 삭제)될 때까지 대기
+            if (System.currentTimeMillis() >= deadline) {
+                meterRegistry.counter("idempotency.requests", "scope", scope, "result", "in_progress").increment();
+                throw new IdempotencyConflictException("같은 " + HEADER + "의 요청이 아직 처리 중입니다", true);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(pollMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyConflictException("같은 " + HEADER + "의 요청이 아직 처리 중입니다", true);
+            }
+            pollMs = Math.min(pollMs * 2, MAX_POLL_MS);
+        }
+    }
+
+    /**
+     * 만료된 키 정리 (서버마다 실행되지만 같은 행을 지우므로 중복 실행해도 무방)
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(SWEEP_SQL, LocalDateTime.now(), sweepBatchSize);
+            } while (deleted >= sweepBatchSize);
+        } catch (DataAccessException e) {
+            log.warn("만료된 Idempotency 키 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private Outcome<Map<String, Object>> run(String scope, Integer userId, String idempotencyKey,
+                                             String claimToken, Supplier<Map<String, Object>> action) {
+        meterRegistry.counter("idempotency.requests", "scope", scope, "result", "executed").increment();
+        Map<String, Object> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            // 실패는 보관하지 않음 (재시도 시 다시 실행)
+            jdbcTemplate.update(RELEASE_SQL, scope, userId, idempotencyKey, claimToken);
+            throw e;
+        }
+
+        try {
+            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+            int updated = jdbcTemplate.update(COMPLETE_SQL, objectMapper.writeValueAsString(result), expiresAt,
+                    scope, userId, idempotencyKey, claimToken);
+            if (updated == 0) {
+                log.warn("Idempotency 키 선점 시간이 지나 결과를 보관하지 못함: scope={}, userId={}", scope, userId);
+            }
+        } catch (JsonProcessingException | DataAccessException e) {
+            // 요청은 이미 처리됐으므로 응답은 그대로 반환 (키만 풀어서 다음 재시도는 다시 실행)
+            log.error("Idempotency 결과 보관 실패: scope={}, userId={}, error={}", scope, userId, e.getMessage());
+            jdbcTemplate.update(RELEASE_SQL, scope, userId, idempotencyKey, claimToken);
+        }
+        return new Outcome<>(result, false);
+    }
+
+    /**
+     * 키 선점 (이미 다른 요청이 선점했으면 null)
+     */
+    private String claim(String scope, Integer userId, String idempotencyKey, String fingerprintHash) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer stored = jdbcTemplate.queryForObject(COUNT_PER_USER_SQL, Integer.class, userId, now);
+        if (stored != null && stored >= maxEntriesPerUser) {
+            meterRegistry.counter("idempotency.requests", "scope", scope, "result", "store_full").increment();
+            log.warn("Idempotency 키 보관 한도 초과로 거부: scope={}, userId={}", scope, userId);
+            throw new TooManyRequestsException("처리 중이거나 보관 중인 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        try {
+            jdbcTemplate.update(CLAIM_SQL, scope, userId, idempotencyKey, fingerprintHash, claimToken,
+                    now.plus(inProgressLeaseMs, ChronoUnit.MILLIS), now);
+            return claimToken;
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    private StoredKey find(String scope, Integer userId, String idempotencyKey) {
+        List<StoredKey> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new StoredKey(
+                rs.getString("fingerprint"),
+                "COMPLETED".equals(rs.getString("status")),
+                rs.getString("response"),
+                rs.getObject("expires_at", LocalDateTime.class)
+        ), scope, userId, idempotencyKey);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Map<String, Object> readResponse(String response) {
+        try {
+            return objectMapper.readValue(response, RESPONSE_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("보관된 Idempotency 응답을 읽을 수 없습니다", e);
+        }
+    }
+
+    private static String sha256(String fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(fingerprint.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+
+    private record StoredKey(String fingerprint, boolean completed, String response, LocalDateTime expiresAt) {
+
+        private boolean isExpired() {
+            return !expiresAt.isAfter(LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * 로그인 시도 제한 (사용자명별 / 클라이언트 IP별 토큰 버킷)
+ * DB 조회와 BCrypt 검증 이전에 호출하여 무차별 대입 공격이 CPU를 소모하지 못하게 한다.
+ * 버킷 상태는 CAS로만 갱신하므로 요청 스레드끼리 락을 잡지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoginRateLimiter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.rate-limit.per-user.capacity:5}")
+    private int userCapacity;
+
+    @Value("${app.security.rate-limit.per-user.refill-per-minute:5}")
+    private int userRefillPerMinute;
+
+    @Value("${app.security.rate-limit.per-ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${app.security.rate-limit.per-ip.refill-per-minute:20}")
+    private int ipRefillPerMinute;
+
+    @Value("${app.security.rate-limit.idle-eviction-minutes:10}")
+    private long idleEvictionMinutes;
+
+    // 버킷 맵 최대 키 수 (초과 시 새 키는 범위별 공용 버킷 하나를 함께 사용)
+    @Value("${app.security.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    // 앞단 프록시가 있을 때만 true (직접 노출된 서버에서 켜면 클라이언트가 헤더로 IP를 위조할 수 있음)
+    @Value("${app.security.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    // X-Forwarded-For를 신뢰할 프록시 주소 (쉼표 구분)
+    @Value("${app.security.rate-limit.trusted-proxies:127.0.0.1,::1,0:0:0:0:0:0:0:1}")
+    private String trustedProxiesConfig;
+
+    private final ConcurrentHashMap<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private Set<String> trustedProxies = Set.of();
+    private TokenBucket userOverflowBucket;
+    private TokenBucket ipOverflowBucket;
+
+    @PostConstruct
+    public void init() {
+        trustedProxies = Arrays.stream(trustedProxiesConfig.split(","))
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        userOverflowBucket = new TokenBucket(userCapacity, userRefillPerMinute);
+        ipOverflowBucket = new TokenBucket(ipCapacity, ipRefillPerMinute);
+
+        Gauge.builder("auth.rate.limit.keys", userBuckets, ConcurrentHashMap::size).tag("scope", "user")
+                .register(meterRegistry);
+        Gauge.builder("auth.rate.limit.keys", ipBuckets, ConcurrentHashMap::size).tag("scope", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 로그인 시도 허용 여부 확인 (한도 초과 시 TooManyRequestsException)
+     */
+    public void checkLoginAttempt(String username, HttpServletRequest request) {
+        if (!enabled) {
+            return;
+        }
+
+        String clientIp = resolveClientIp(request);
+        TokenBucket ipBucket = bucketFor(ipBuckets, clientIp, ipOverflowBucket, ipCapacity, ipRefillPerMinute);
+        if (!ipBucket.tryConsume()) {
+            reject("ip", clientIp);
+        }
+
+        if (username != null) {
+            String userKey = username.trim().toLowerCase(Locale.ROOT);
+            TokenBucket userBucket = bucketFor(userBuckets, userKey, userOverflowBucket, userCapacity, userRefillPerMinute);
+            if (!userBucket.tryConsume()) {
+                reject("user", userKey);
+            }
+        }
+    }
+
+    /**
+     * 일정 시간 사용되지 않은 버킷 정리
+     */
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long idleNanos = TimeUnit.MINUTES.toNanos(idleEvictionMinutes);
+        long now = System.nanoTime();
+        userBuckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        ipBuckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+
+    /**
+     * 키별 버킷 조회 (맵이 max-keys에 도달하면 새 키는 공용 버킷으로 제한해 메모리 사용량을 고정)
+     */
+    private TokenBucket bucketFor(ConcurrentHashMap<String, TokenBucket> buckets, String key,
+                                  TokenBucket overflowBucket, int capacity, int refillPerMinute) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            return overflowBucket;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerMinute));
+    }
+
+    private void reject(String scope, String key) {
+        meterRegistry.counter("auth.rate.limit.rejected", "scope", scope).increment();
+        log.warn("로그인 시도 제한 초과 ({}): {}", scope, key);
+        throw new TooManyRequestsException("로그인 시도가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+    }
+
+    /**
+     * 클라이언트 IP 결정
+     * 직접 연결한 주소가 신뢰하는 프록시일 때만 X-Forwarded-For를 보며, 오른쪽(가장 가까운 홉)부터
+     * 신뢰하는 프록시를 건너뛴 첫 주소를 사용한다. 왼쪽 항목은 클라이언트가 마음대로 넣을 수 있다.
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!trustForwardedFor || !trustedProxies.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return remoteAddr;
+    }
+
+    /**
+     * CAS 기반 토큰 버킷
+     */
+    static final class TokenBucket {
+
+        private record State(double tokens, long lastRefillNanos) {
+        }
+
+        private final int capacity;
+        private final double tokensPerNano;
+        private final AtomicReference<State> state;
+
+        TokenBucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+        }
+
+        boolean tryConsume() {
+            while (true) {
+                State current = state.get();
+                long now = System.nanoTime();
+                double refilled = Math.min(capacity, current.tokens() + (now - current.lastRefillNanos()) * tokensPerNano);
+                if (refilled < 1.0) {
+                    // 토큰 부족: 상태를 갱신하지 않고 거절
+                    return false;
+                }
+                if (state.compareAndSet(current, new State(refilled - 1.0, now))) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isIdle(long now, long idleNanos) {
+            State current = state.get();
+            boolean full = current.tokens() + (now - current.lastRefillNanos()) * tokensPerNano >= capacity;
+            return full && now - current.lastRefillNanos() > idleNanos;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.shieldhub.backend.service;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.MultiFormatWriter;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
@@ -8,10 +9,15 @@ import com.warrenstrange.googleauth.GoogleAuthenticator;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 import com.warrenstrange.googleauth.GoogleAuthenticatorQRGenerator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +25,19 @@ public class OtpService {
 
     private final GoogleAuthenticator googleAuthenticator = new GoogleAuthenticator();
 
+    // 사용자별 렌더링된 QR 코드 캐시 (OTP 활성화/비활성화 시 제거)
+    private final Map<String, CachedQrCode> qrCodeCache = new ConcurrentHashMap<>();
+
+    @Value("${app.otp.qr-code.cache-ttl-ms:600000}")
+    private long qrCodeCacheTtlMs;
+
+    public enum QrCodeFormat {
+        PNG, SVG
+    }
+
+    private record CachedQrCode(String secret, byte[] image, long expiresAt) {
+    }
+
     /**
      * OTP 비밀키 생성
      */
@@ -45,7 +64,45 @@ public class OtpService {
     /**
      * QR 코드 이미지를 Base64로 생성
      */
-    public String generateQrCodeImage(String qrCodeUrl) throws Exception {
+    public String generateQrCodeImage(String username, String secret) throws Exception {
+        byte[] imageBytes = getQrCode(username, secret, QrCodeFormat.PNG);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(imageBytes);
+    }
+
+    /**
+     * QR 코드 이미지 조회 (캐시에 없거나 비밀키가 바뀐 경우에만 렌더링)
+     */
+    public byte[] getQrCode(String username, String secret, QrCodeFormat format) throws Exception {
+        String cacheKey = username + ":" + format;
+        CachedQrCode cached = qrCodeCache.get(cacheKey);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.secret().equals(secret) && cached.expiresAt() > now) {
+            return cached.image();
+        }
+
+        String qrCodeUrl = generateQrCodeUrl(username, secret);
+        byte[] image = format == QrCodeFormat.SVG ? renderSvg(qrCodeUrl) : renderPng(qrCodeUrl);
+        qrCodeCache.put(cacheKey, new CachedQrCode(secret, image, now + qrCodeCacheTtlMs));
+        return image;
+    }
+
+    /**
+     * 캐시된 QR 코드 제거
+     */
+    public void evictQrCode(String username) {
+        for (QrCodeFormat format : QrCodeFormat.values()) {
+            qrCodeCache.remove(username + ":" + format);
+        }
+    }
+
+    // 설정을 끝내지 않은 사용자의 QR 코드 정리
+    @Scheduled(fixedDelayString = "${app.otp.qr-code.cache-ttl-ms:600000}")
+    public void evictExpiredQrCodes() {
+        long now = System.currentTimeMillis();
+        qrCodeCache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private byte[] renderPng(String qrCodeUrl) throws Exception {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         BitMatrix matrix = new MultiFormatWriter().encode(
                 qrCodeUrl,
@@ -55,9 +112,43 @@ public class OtpService {
         );
 
         MatrixToImageWriter.writeToStream(matrix, "PNG", baos);
-        byte[] imageBytes = baos.toByteArray();
+        return baos.toByteArray();
+    }
 
-        return "data:image/png;base64," + Base64.getEncoder().encodeToString(imageBytes);
+    // 모듈 단위 행렬을 가로 구간(run)별 path로 변환한 SVG (래스터화/압축 과정 없음)
+    private byte[] renderSvg(String qrCodeUrl) throws Exception {
+        BitMatrix matrix = new MultiFormatWriter().encode(
+                qrCodeUrl,
+                BarcodeFormat.QR_CODE,
+                0,  // 최소 크기 (1모듈 = 1단위)
+                0,
+                Map.of(EncodeHintType.MARGIN, 4)
+        );
+
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        StringBuilder path = new StringBuilder(width * height);
+        for (int y = 0; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < width && matrix.get(x, y)) {
+                    x++;
+                }
+                path.append('M').append(start).append(' ').append(y)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 " + width + " " + height
+                + "\" width=\"300\" height=\"300\" shape-rendering=\"crispEdges\">"
+                + "<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>"
+                + "<path fill=\"#000\" d=\"" + path + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
     }
 
     /**
@@ -73,4 +164,4 @@ public class OtpService {
     public int getTotpPassword(String secret) {
         return googleAuthenticator.getTotpPassword(secret);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.shieldhub.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 보관 기간이 지난 분석/파일 이력 정리
+ * 오래된 행을 작은 묶음 단위로 (선택 시 *Archive 테이블로 복사 후) 삭제한다.
+ * - 묶음마다 짧은 트랜잭션 + 묶음 사이 대기로 긴 잠금이나 복제 지연을 만들지 않음
+ * - 한 번 실행에서 처리할 최대 묶음 수를 제한하고, 남은 행은 다음 실행에서 이어서 처리
+ * - 통계 집계(VulnerabilityStatsDaily)는 삭제하지 않으므로 대시보드 추이는 유지됨
+ *
+ * MySQL 파티셔닝은 파티션 키가 모든 unique 키(PK 포함)에 들어가야 해서 현재 스키마에 맞지 않아
+ * 날짜 인덱스 기반 묶음 삭제 + 보관 테이블 방식을 사용한다. 보관 테이블은 마이그레이션(V5__archive_tables)에서 생성.
+ * 보관 복사는 컬럼을 명시하므로, 원본 테이블에 컬럼을 추가하면 보관 테이블과 아래 컬럼 목록에도 함께 추가한다.
+ *
+ * 여러 서버가 같은 cron으로 실행되므로 MySQL 이름 잠금(GET_LOCK)을 얻은 서버 하나만 정리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetentionService {
+
+    private static final String ANALYSIS_IDS_SQL =
+            "SELECT analysis_id FROM AnalysisResults WHERE analysis_date < :cutoff " +
+            "AND analysis_status IN ('COMPLETED', 'FAILED') ORDER BY analysis_date LIMIT :limit";
+
+    private static final String FILE_HISTORY_IDS_SQL =
+            "SELECT history_id FROM FileHistory WHERE `timestamp` < :cutoff ORDER BY `timestamp` LIMIT :limit";
+
+    // 보관 복사 컬럼 (SELECT *는 원본과 보관 테이블 구조가 조금만 달라도 실패하거나 다른 컬럼에 들어감)
+    private static final String ANALYSIS_COLUMNS = "analysis_id, user_id, url_to_analyze, canonical_url, reversed_host, " +
+            "analysis_date, analysis_status, priority, started_at, attempt_count, completion_date, error_message";
+
+    private static final String ANALYSIS_VULNERABILITY_COLUMNS = "analysis_id, vulnerability_id, detection_context";
+
+    private static final String FILE_HISTORY_COLUMNS = "history_id, file_id, action_type, `timestamp`";
+
+    private static final String LOCK_NAME = "shieldhub.retention";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.retention.archive:true}")
+    private boolean archive;
+
+    @Value("${app.retention.analysis-days:180}")
+    private int analysisDays;
+
+    @Value("${app.retention.file-history-days:365}")
+    private int fileHistoryDays;
+
+    @Value("${app.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.retention.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${app.retention.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(cron = "${app.retention.cron:0 30 3 * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        // 잠금은 이 커넥션에 묶여 있어 서버가 중간에 죽어도 커넥션이 끊기면 자동 해제된다.
+        namedJdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Void>) lockConnection -> {
+            if (!tryLock(lockConnection)) {
+                log.info("다른 서버가 보관 기간 정리 중이므로 건너뜀");
+                return null;
+            }
+            try {
+                purgeExpired();
+            } finally {
+                releaseLock(lockConnection);
+            }
+            return null;
+        });
+    }
+
+    private void purgeExpired() {
+        try {
+            int analyses = purgeInBatches("analysis", ANALYSIS_IDS_SQL,
+                    LocalDateTime.now().minusDays(analysisDays), this::purgeAnalyses);
+            int histories = purgeInBatches("file_history", FILE_HISTORY_IDS_SQL,
+                    LocalDateTime.now().minusDays(fileHistoryDays), this::purgeFileHistory);
+            if (analyses > 0 || histories > 0) {
+                log.info("보관 기간 지난 데이터 정리: 분석 {}건, 파일 이력 {}건 (archive={})", analyses, histories, archive);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        }
+    }
+
+    private int purgeInBatches(String target, String selectSql, LocalDateTime cutoff,
+                               Function<List<Integer>, Integer> purgeBatch) throws InterruptedException {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("limit", batchSize);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer purged = transactionTemplate.execute(status -> {
+                List<Integer> ids = namedJdbcTemplate.queryForList(selectSql, params, Integer.class);
+                return ids.isEmpty() ? 0 : purgeBatch.apply(ids);
+            });
+            if (purged == null || purged == 0) {
+                break;
+            }
+            total += purged;
+            meterRegistry.counter("retention.purged", "target", target).increment(purged);
+            Thread.sleep(pauseMs);
+        }
+        return total;
+    }
+
+    private int purgeAnalyses(List<Integer> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        if (archive) {
+            namedJdbcTemplate.update("INSERT IGNORE INTO AnalysisVulnerabilitiesArchive (" + ANALYSIS_VULNERABILITY_COLUMNS + ") " +
+                    "SELECT " + ANALYSIS_VULNERABILITY_COLUMNS + " FROM AnalysisVulnerabilities WHERE analysis_id IN (:ids)", params);
+            namedJdbcTemplate.update("INSERT IGNORE INTO AnalysisResultsArchive (" + ANALYSIS_COLUMNS + ") " +
+                    "SELECT " + ANALYSIS_COLUMNS + " FROM AnalysisResults WHERE analysis_id IN (:ids)", params);
+        }
+        namedJdbcTemplate.update("DELETE FROM AnalysisVulnerabilities WHERE analysis_id IN (:ids)", params);
+        namedJdbcTemplate.update("DELETE FROM AnalysisTypeIndex WHERE analysis_id IN (:ids)", params);
+        return namedJdbcTemplate.update("DELETE FROM AnalysisResults WHERE analysis_id IN (:ids)", params);
+    }
+
+    private int purgeFileHistory(List<Integer> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        if (archive) {
+            namedJdbcTemplate.update("INSERT IGNORE INTO FileHistoryArchive (" + FILE_HISTORY_COLUMNS + ") " +
+                    "SELECT " + FILE_HISTORY_COLUMNS + " FROM FileHistory WHERE history_id IN (:ids)", params);
+        }
+        return namedJdbcTemplate.update("DELETE FROM FileHistory WHERE history_id IN (:ids)", params);
+    }
+}
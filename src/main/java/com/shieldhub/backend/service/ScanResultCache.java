@@ -0,0 +1,153 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.AnalysisResults;
+import com.shieldhub.backend.repository.AnalysisResultsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 동일 URL 분석 결과 재사용
+ * - 최근(TTL 이내) 완료된 분석이 있으면 그 분석 ID를 반환 (메모리 → DB 순으로 확인)
+ *   메모리에 있는 분석도 아직 남아 있는지 DB에서 확인 (삭제/정리된 분석을 재사용하면 취약점 없는 결과가 됨)
+ * - 같은 URL 스캔이 진행 중이면 새로 스캔하지 않고 그 결과를 기다림 (single-flight)
+ */
+@Service
+@RequiredArgsConstructor
+public class ScanResultCache {
+
+    private final AnalysisResultsRepository analysisResultsRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.analysis.result-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.analysis.result-cache.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${app.analysis.result-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.analysis.result-cache.follower-wait-ms:300000}")
+    private long followerWaitMs;
+
+    private record CachedResult(Integer analysisId, LocalDateTime completedAt) {
+    }
+
+    private final Map<String, CachedResult> recentResults = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Integer>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * TTL 이내에 완료된 같은 URL 분석 ID (없으면 null)
+     */
+    public Integer findRecentAnalysisId(String canonicalUrl) {
+        if (!enabled || canonicalUrl == null) {
+            return null;
+        }
+        LocalDateTime since = LocalDateTime.now().minusMinutes(ttlMinutes);
+
+        CachedResult cached = recentResults.get(canonicalUrl);
+        if (cached != null && cached.completedAt().isAfter(since)) {
+            if (analysisResultsRepository.existsByAnalysisIdAndStatus(
+                    cached.analysisId(), AnalysisResults.AnalysisStatus.COMPLETED)) {
+                meterRegistry.counter("analysis.result.cache", "result", "hit").increment();
+                return cached.analysisId();
+            }
+            invalidate(canonicalUrl, cached.analysisId());
+        }
+
+        // 다른 인스턴스에서 완료된 분석도 재사용
+        Integer analysisId = analysisResultsRepository
+                .findFirstByCanonicalUrlAndStatusAndCompletionDateAfterOrderByCompletionDateDesc(
+                        canonicalUrl, AnalysisResults.AnalysisStatus.COMPLETED, since)
+                .map(result -> {
+                    put(canonicalUrl, result.getAnalysisId(), result.getCompletionDate());
+                    return result.getAnalysisId();
+                })
+                .orElse(null);
+        meterRegistry.counter("analysis.result.cache", "result", analysisId != null ? "db_hit" : "miss").increment();
+        return analysisId;
+    }
+
+    /**
+     * 같은 URL에 대해 한 번만 스캔
+     * @param leader   직접 스캔하고 결과를 저장하는 작업 (완료된 분석 반환)
+     * @param follower 진행 중인 스캔 결과(분석 ID)를 받아 자신의 분석에 반영하는 작업
+     */
+    public AnalysisResults executeOnce(String canonicalUrl,
+                                       Supplier<AnalysisResults> leader,
+                                       Function<Integer, AnalysisResults> follower) {
+        if (!enabled || canonicalUrl == null) {
+            return leader.get();
+        }
+
+        CompletableFuture<Integer> mine = new CompletableFuture<>();
+        CompletableFuture<Integer> existing = inFlight.putIfAbsent(canonicalUrl, mine);
+        if (existing != null) {
+            meterRegistry.counter("analysis.result.cache", "result", "coalesced").increment();
+            return follower.apply(await(existing));
+        }
+
+        try {
+            AnalysisResults result = leader.get();
+            if (result.getStatus() == AnalysisResults.AnalysisStatus.COMPLETED) {
+                put(canonicalUrl, result.getAnalysisId(), result.getCompletionDate());
+                mine.complete(result.getAnalysisId());
+            } else {
+                mine.completeExceptionally(new RuntimeException(result.getErrorMessage()));
+            }
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(canonicalUrl, mine);
+        }
+    }
+
+    /**
+     * 재사용할 수 없게 된 분석(삭제/정리됨) 제거
+     */
+    public void invalidate(String canonicalUrl, Integer analysisId) {
+        if (canonicalUrl == null) {
+            return;
+        }
+        recentResults.computeIfPresent(canonicalUrl,
+                (url, cached) -> cached.analysisId().equals(analysisId) ? null : cached);
+        meterRegistry.counter("analysis.result.cache", "result", "stale").increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.analysis.result-cache.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(ttlMinutes);
+        recentResults.values().removeIf(cached -> !cached.completedAt().isAfter(since));
+    }
+
+    private void put(String canonicalUrl, Integer analysisId, LocalDateTime completedAt) {
+        if (recentResults.size() < maxEntries || recentResults.containsKey(canonicalUrl)) {
+            recentResults.put(canonicalUrl, new CachedResult(analysisId, completedAt));
+        }
+    }
+
+    private Integer await(CompletableFuture<Integer> future) {
+        try {
+            return future.get(followerWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("분석 대기 중 중단되었습니다.", e);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("동일 URL 분석 결과 대기 시간이 초과되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(cause);
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package com.shieldhub.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shieldhub.backend.dto.response.FlaskAnalysisResponse;
+import com.shieldhub.backend.exception.ScannerUnavailableException;
+import com.shieldhub.backend.util.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Flask 스캐너 호출 클라이언트
+ * - 커넥션 풀 기반 HTTP 클라이언트 (AppConfig.scannerHttpClient)
+ * - 호출별 전체 제한 시간 (초과 시 요청 취소)
+ * - Bulkhead: 동시 스캔 수 제한
+ * - 스캐너 인스턴스가 여러 개면 처리 중 요청이 가장 적은 인스턴스로 분배 (Least Outstanding Requests)
+ * - 인스턴스별 Circuit Breaker: 연속 실패한 인스턴스는 일정 시간 분배 대상에서 제외
+ *   (5xx / 연결 오류 / 제한 시간 초과만 실패로 집계, 4xx는 요청 문제이므로 정상 응답으로 봄)
+ * - (선택) Hedged Request: p95 지연 시간 안에 응답이 없으면 다른 인스턴스에 중복 요청, 먼저 온 응답 사용
+ * - (선택) 스트리밍 모드: 큰 응답을 토큰 단위로 읽으며 취약점을 일정 개수씩 넘겨 메모리 사용량을 제한
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScannerClient {
+
+    private static final int LATENCY_SAMPLES = 128;
+
+    private final CloseableHttpClient scannerHttpClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.flask.server-url}")
+    private String flaskServerUrl;
+
+    // 여러 스캐너 인스턴스 (쉼표 구분, 비어 있으면 server-url 하나만 사용)
+    @Value("${app.flask.server-urls:}")
+    private String flaskServerUrls;
+
+    @Value("${app.flask.client.deadline-ms:180000}")
+    private long deadlineMs;
+
+    @Value("${app.flask.client.max-concurrent-scans:8}")
+    private int maxConcurrentScans;
+
+    @Value("${app.flask.client.bulkhead-wait-ms:1000}")
+    private long bulkheadWaitMs;
+
+    @Value("${app.flask.client.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${app.flask.client.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${app.flask.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${app.flask.hedging.min-delay-ms:2000}")
+    private long hedgeMinDelayMs;
+
+    @Value("${app.flask.hedging.min-samples:20}")
+    private int hedgeMinSamples;
+
+    private final List<ScannerEndpoint> endpoints = new ArrayList<>();
+    private final AtomicLongArray latencySamples = new AtomicLongArray(LATENCY_SAMPLES);
+    private final AtomicInteger latencySampleCount = new AtomicInteger();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    private Semaphore bulkhead;
+    private ScheduledExecutorService deadlineScheduler;
+    private ExecutorService hedgeExecutor;
+
+    @PostConstruct
+    public void init() {
+        String urls = flaskServerUrls == null || flaskServerUrls.isBlank() ? flaskServerUrl : flaskServerUrls;
+        for (String url : urls.split(",")) {
+            if (!url.isBlank()) {
+                endpoints.add(new ScannerEndpoint(url.trim()));
+            }
+        }
+
+        bulkhead = new Semaphore(maxConcurrentScans);
+        deadlineScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "scanner-deadline");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger threadIndex = new AtomicInteger();
+        hedgeExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "scanner-hedge-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("scanner.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+        for (ScannerEndpoint endpoint : endpoints) {
+            Gauge.builder("scanner.endpoint.outstanding", endpoint.outstanding, AtomicInteger::get)
+                    .tag("endpoint", endpoint.url)
+                    .register(meterRegistry);
+            Gauge.builder("scanner.circuit.state", endpoint.circuitBreaker, cb -> cb.getState().ordinal())
+                    .tag("endpoint", endpoint.url)
+                    .description("0=CLOSED, 1=OPEN, 2=HALF_OPEN")
+                    .register(meterRegistry);
+        }
+        log.info("Flask 스캐너 인스턴스 {}개 등록 (hedging={})", endpoints.size(), hedgingEnabled);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deadlineScheduler.shutdownNow();
+        hedgeExecutor.shutdownNow();
+    }
+
+    /**
+     * URL 분석 요청
+     */
+    public FlaskAnalysisResponse analyze(String url) {
+        acquireBulkhead();
+        try {
+            ScannerEndpoint primary = requireEndpoint();
+            if (!hedgingEnabled || endpoints.size() < 2) {
+                return new Attempt(primary, url, this::parseFully).execute();
+            }
+            return analyzeHedged(primary, url);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * URL 분석 요청 (스트리밍 모드)
+     * 응답 전체를 메모리에 올리지 않고 vulnerabilities 배열을 읽는 대로 batchSize개씩 batchConsumer에 넘긴다.
+     * 반환값에는 vulnerabilities를 제외한 요약 필드만 채워진다.
+     * 부수 효과가 있으므로 hedge 하지 않는다.
+     */
+    public FlaskAnalysisResponse analyzeStreaming(String url, int batchSize,
+                                                  Consumer<List<FlaskAnalysisResponse.VulnerabilityDetail>> batchConsumer) {
+        acquireBulkhead();
+        try {
+            ScannerEndpoint endpoint = requireEndpoint();
+            return new Attempt(endpoint, url, in -> parseStreaming(in, batchSize, batchConsumer)).execute();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void acquireBulkhead() {
+        try {
+            if (!bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS)) {
+                record("rejected", "none", 0);
+                throw new ScannerUnavailableException("동시에 처리 중인 분석이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScannerUnavailableException("분석 요청이 중단되었습니다.", e);
+        }
+    }
+
+    private ScannerEndpoint requireEndpoint() {
+        ScannerEndpoint endpoint = selectEndpoint(null);
+        if (endpoint == null) {
+            record("circuit_open", "none", 0);
+            throw new ScannerUnavailableException("분석 서버가 응답하지 않아 잠시 요청을 차단했습니다. 잠시 후 다시 시도해주세요.");
+        }
+        return endpoint;
+    }
+
+    private FlaskAnalysisResponse parseFully(InputStream in) throws IOException {
+        return objectMapper.readValue(in, FlaskAnalysisResponse.class);
+    }
+
+    // Jackson Streaming API로 응답을 토큰 단위로 읽음 (메모리에는 최대 batchSize개의 취약점만 유지)
+    private FlaskAnalysisResponse parseStreaming(InputStream in, int batchSize,
+                                                 Consumer<List<FlaskAnalysisResponse.VulnerabilityDetail>> batchConsumer)
+            throws IOException {
+        FlaskAnalysisResponse summary = new FlaskAnalysisResponse();
+        int received = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ScannerUnavailableException("분석 서버 응답 형식이 올바르지 않습니다.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "success" -> summary.setSuccess(parser.getValueAsBoolean());
+                    case "url" -> summary.setUrl(parser.getValueAsString());
+                    case "vulnerability_count" -> summary.setVulnerability_count(parser.getValueAsInt());
+                    case "vulnerabilities" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            parser.skipChildren();
+                            break;
+                        }
+                        List<FlaskAnalysisResponse.VulnerabilityDetail> batch = new ArrayList<>(batchSize);
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            batch.add(objectMapper.readValue(parser, FlaskAnalysisResponse.VulnerabilityDetail.class));
+                            received++;
+                            if (batch.size() >= batchSize) {
+                                deliver(batchConsumer, batch);
+                                batch = new ArrayList<>(batchSize);
+                            }
+                        }
+                        if (!batch.isEmpty()) {
+                            deliver(batchConsumer, batch);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        meterRegistry.summary("scanner.streaming.findings").record(received);
+        return summary;
+    }
+
+    // 저장 쪽 오류는 스캐너 장애로 집계하지 않도록 구분
+    private void deliver(Consumer<List<FlaskAnalysisResponse.VulnerabilityDetail>> batchConsumer,
+                         List<FlaskAnalysisResponse.VulnerabilityDetail> batch) {
+        try {
+            batchConsumer.accept(batch);
+        } catch (RuntimeException e) {
+            throw new BatchConsumerException(e);
+        }
+    }
+
+    // 1차 요청이 hedge 지연 시간 안에 끝나지 않으면 다른 인스턴스로 2차 요청
+    private FlaskAnalysisResponse analyzeHedged(ScannerEndpoint primary, String url) {
+        Attempt first = new Attempt(primary, url, this::parseFully);
+        CompletableFuture<FlaskAnalysisResponse> firstFuture = CompletableFuture.supplyAsync(first::execute, hedgeExecutor);
+
+        try {
+            return firstFuture.get(hedgeDelayMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // hedge 진행
+        } catch (InterruptedException e) {
+            first.cancel();
+            Thread.currentThread().interrupt();
+            throw new ScannerUnavailableException("분석 요청이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        // 여유 슬롯과 다른 정상 인스턴스가 있을 때만 중복 요청
+        if (!bulkhead.tryAcquire()) {
+            return await(firstFuture, first, null);
+        }
+        ScannerEndpoint secondary = selectEndpoint(primary);
+        if (secondary == null) {
+            bulkhead.release();
+            return await(firstFuture, first, null);
+        }
+
+        meterRegistry.counter("scanner.hedged.requests").increment();
+        Attempt second = new Attempt(secondary, url, this::parseFully);
+        CompletableFuture<FlaskAnalysisResponse> secondFuture = CompletableFuture.supplyAsync(second::execute, hedgeExecutor);
+
+        // 먼저 성공한 응답 사용, 둘 다 실패하면 마지막 오류 전달
+        CompletableFuture<FlaskAnalysisResponse> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<FlaskAnalysisResponse> future : List.of(firstFuture, secondFuture)) {
+            future.whenComplete((response, error) -> {
+                if (error == null) {
+                    winner.complete(response);
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+
+        try {
+            return await(winner, first, second);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private FlaskAnalysisResponse await(CompletableFuture<FlaskAnalysisResponse> future, Attempt first, Attempt second) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScannerUnavailableException("분석 요청이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            // 늦은 쪽 요청 취소
+            first.cancel();
+            if (second != null) {
+                second.cancel();
+            }
+        }
+    }
+
+    // 처리 중 요청이 가장 적은 정상 인스턴스 선택 (동률이면 순환)
+    private ScannerEndpoint selectEndpoint(ScannerEndpoint exclude) {
+        int size = endpoints.size();
+        int offset = Math.floorMod(roundRobin.getAndIncrement(), size);
+        List<ScannerEndpoint> candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ScannerEndpoint endpoint = endpoints.get((offset + i) % size);
+            if (endpoint != exclude) {
+                candidates.add(endpoint);
+            }
+        }
+        candidates.sort(Comparator.comparingInt(endpoint -> endpoint.outstanding.get()));
+
+        for (ScannerEndpoint endpoint : candidates) {
+            if (endpoint.circuitBreaker.tryAcquirePermission()) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    // 최근 성공 응답 지연 시간의 p95 (표본이 부족하면 전체 제한 시간 = hedge 하지 않음)
+    private long hedgeDelayMs() {
+        int count = Math.min(latencySampleCount.get(), LATENCY_SAMPLES);
+        if (count < hedgeMinSamples) {
+            return deadlineMs;
+        }
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = latencySamples.get(i);
+        }
+        Arrays.sort(samples);
+        long p95 = samples[(int) Math.ceil(count * 0.95) - 1];
+        return Math.max(hedgeMinDelayMs, p95);
+    }
+
+    private void recordLatency(long millis) {
+        int index = latencySampleCount.getAndIncrement();
+        latencySamples.set(Math.floorMod(index, LATENCY_SAMPLES), millis);
+        if (index < 0) {
+            latencySampleCount.set(LATENCY_SAMPLES);
+        }
+    }
+
+    private void record(String outcome, String endpoint, long startNanos) {
+        Timer timer = Timer.builder("scanner.requests")
+                .tag("outcome", outcome)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        timer.record(startNanos == 0 ? 0 : System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+        if (cause instanceof ScannerUnavailableException || cause instanceof IllegalArgumentException) {
+            return (RuntimeException) cause;
+        }
+        return new ScannerUnavailableException("분석 서버 통신 중 오류가 발생했습니다.", cause);
+    }
+
+    /**
+     * 스캐너 인스턴스 (처리 중 요청 수 + 인스턴스별 서킷 브레이커)
+     */
+    private final class ScannerEndpoint {
+
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+
+        private ScannerEndpoint(String url) {
+            this.url = url;
+        }
+    }
+
+    /**
+     * 인스턴스 1곳에 대한 요청 1건 (취소 가능)
+     */
+    private final class Attempt {
+
+        private final ScannerEndpoint endpoint;
+        private final String url;
+        private final ResponseParser parser;
+        private final HttpPost post;
+        private volatile boolean cancelledByHedge = false;
+
+        private Attempt(ScannerEndpoint endpoint, String url, ResponseParser parser) {
+            this.endpoint = endpoint;
+            this.url = url;
+            this.parser = parser;
+            this.post = new HttpPost(endpoint.url + "/api/analyze");
+        }
+
+        void cancel() {
+            if (!post.isCancelled()) {
+                cancelledByHedge = true;
+                post.cancel();
+            }
+        }
+
+        FlaskAnalysisResponse execute() {
+            long start = System.nanoTime();
+            endpoint.outstanding.incrementAndGet();
+            // 전체 제한 시간 초과 시 진행 중인 요청 취소
+            ScheduledFuture<?> deadline = deadlineScheduler.schedule(post::cancel, deadlineMs, TimeUnit.MILLISECONDS);
+            try {
+                post.setEntity(new StringEntity(
+                        objectMapper.writeValueAsString(Collections.singletonMap("url", url)),
+                        ContentType.APPLICATION_JSON));
+
+                FlaskAnalysisResponse response = scannerHttpClient.execute(post, httpResponse -> {
+                    int status = httpResponse.getCode();
+                    if (status >= 500) {
+                        throw new ScannerUnavailableException("분석 서버 오류 (HTTP " + status + ")");
+                    }
+                    if (status >= 400) {
+                        throw new ScannerRejectedException(status);
+                    }
+                    return parser.parse(httpResponse.getEntity().getContent());
+                });
+
+                endpoint.circuitBreaker.onSuccess();
+                recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                record("success", endpoint.url, start);
+                return response;
+            } catch (ScannerRejectedException e) {
+                // 스캐너가 응답했으므로 장애로 집계하지 않음 (HALF_OPEN 시험 요청이었다면 CLOSED로 복귀)
+                endpoint.circuitBreaker.onSuccess();
+                record("client_error", endpoint.url, start);
+                log.warn("Flask 스캐너가 요청 거부 ({}, {}): HTTP {}", endpoint.url, url, e.status);
+                throw new IllegalArgumentException("분석 서버가 요청을 거부했습니다 (HTTP " + e.status + ")");
+            } catch (BatchConsumerException e) {
+                // 스캐너는 정상 응답 중이었으므로 서킷 브레이커 상태는 그대로 두고 원래 오류 전달
+                endpoint.circuitBreaker.releasePermission();
+                record("consumer_error", endpoint.url, start);
+                throw e.getCause();
+            } catch (Exception e) {
+                if (cancelledByHedge) {
+                    // 다른 인스턴스 응답이 먼저 와서 취소된 요청은 장애로 보지 않음
+                    endpoint.circuitBreaker.releasePermission();
+                    record("cancelled", endpoint.url, start);
+                    throw new ScannerUnavailableException("중복 요청이 취소되었습니다.", e);
+                }
+
+                endpoint.circuitBreaker.onFailure();
+                boolean timedOut = post.isCancelled();
+                record(timedOut ? "timeout" : "error", endpoint.url, start);
+                log.error("Flask 스캐너 호출 실패 ({}, {}): {}", endpoint.url, url, e.getMessage());
+                if (e instanceof ScannerUnavailableException scannerException) {
+                    throw scannerException;
+                }
+                throw new ScannerUnavailableException(
+                        timedOut ? "분석 서버 응답 시간이 초과되었습니다." : "분석 서버 통신 중 오류가 발생했습니다.", e);
+            } finally {
+                deadline.cancel(false);
+                endpoint.outstanding.decrementAndGet();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser {
+        FlaskAnalysisResponse parse(InputStream in) throws IOException;
+    }
+
+    // 4xx 응답 (요청 자체의 문제, 서킷 브레이커 실패로 집계하지 않음)
+    private static final class ScannerRejectedException extends RuntimeException {
+        private final int status;
+
+        private ScannerRejectedException(int status) {
+            super("HTTP " + status);
+            this.status = status;
+        }
+    }
+
+    private static final class BatchConsumerException extends RuntimeException {
+        private BatchConsumerException(RuntimeException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+}
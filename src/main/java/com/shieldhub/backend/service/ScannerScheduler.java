@@ -0,0 +1,236 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.exception.ScannerUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 스캐너 작업 스케줄러 (ScannerClient 앞단)
+ * 스캐너 동시 실행 슬롯을 사용자별 가중 공정 큐(WFQ)로 배분한다.
+ * - 흐름(flow) = (우선순위 등급, userId). 요청마다 가상 종료 시각 = max(현재 가상 시각, 흐름의 직전 종료 시각) + 1/가중치
+ *   가상 종료 시각이 가장 이른 대기 요청부터 슬롯을 받으므로, 한 사용자가 많이 넣어도 다른 사용자 요청이 뒤로 밀리지 않는다.
+ * - INTERACTIVE(단건 분석)는 BULK(대량 분석)보다 가중치가 크고, BULK는 최대 슬롯 수를 제한해
+ *   대량 작업이 돌고 있어도 단건 분석이 바로 슬롯을 얻을 수 있게 한다.
+ * - 대기 시간은 등급별 Timer(scanner.scheduler.queue.time)로 기록
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScannerScheduler {
+
+    public enum Priority {
+        INTERACTIVE, BULK
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.flask.client.max-concurrent-scans:8}")
+    private int maxConcurrent;
+
+    @Value("${app.flask.scheduler.bulk-max-slots:6}")
+    private int bulkMaxSlots;
+
+    @Value("${app.flask.scheduler.interactive-weight:8}")
+    private double interactiveWeight;
+
+    @Value("${app.flask.scheduler.bulk-weight:1}")
+    private double bulkWeight;
+
+    @Value("${app.flask.scheduler.interactive-queue-timeout-ms:60000}")
+    private long interactiveQueueTimeoutMs;
+
+    @Value("${app.flask.scheduler.bulk-queue-timeout-ms:600000}")
+    private long bulkQueueTimeoutMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Priority, PriorityQueue<Waiter>> queues = new EnumMap<>(Priority.class);
+    private final Map<Flow, Double> lastFinishTags = new HashMap<>();
+    private final int[] active = new int[Priority.values().length];
+    private double virtualTime = 0;
+    private long sequence = 0;
+
+    private final Map<Priority, Timer> queueTimers = new EnumMap<>(Priority.class);
+
+    @PostConstruct
+    public void init() {
+        bulkMaxSlots = Math.max(1, Math.min(bulkMaxSlots, maxConcurrent));
+        for (Priority priority : Priority.values()) {
+            PriorityQueue<Waiter> queue = new PriorityQueue<>(
+                    Comparator.comparingDouble((Waiter w) -> w.finishTag).thenComparingLong(w -> w.sequence));
+            queues.put(priority, queue);
+
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            queueTimers.put(priority, Timer.builder("scanner.scheduler.queue.time")
+                    .tag("priority", tag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            Gauge.builder("scanner.scheduler.queued", this, s -> s.queuedCount(priority))
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            Gauge.builder("scanner.scheduler.active", this, s -> s.activeCount(priority))
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 슬롯을 받을 때까지 기다렸다가 호출 스레드에서 scan 실행
+     */
+    public <T> T execute(Integer userId, Priority priority, Supplier<T> scan) {
+        acquire(userId, priority);
+        try {
+            return scan.get();
+        } finally {
+            release(priority);
+        }
+    }
+
+    private void acquire(Integer userId, Priority priority) {
+        long start = System.nanoTime();
+        Waiter waiter;
+
+        lock.lock();
+        try {
+            Flow flow = new Flow(priority, userId);
+            double startTag = Math.max(virtualTime, lastFinishTags.getOrDefault(flow, 0.0));
+            double finishTag = startTag + 1.0 / weight(priority);
+            lastFinishTags.put(flow, finishTag);
+
+            waiter = new Waiter(priority, finishTag, sequence++);
+            queues.get(priority).add(waiter);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+
+        long timeoutMs = priority == Priority.INTERACTIVE ? interactiveQueueTimeoutMs : bulkQueueTimeoutMs;
+        boolean granted;
+        try {
+            granted = waiter.granted.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            granted = false;
+        }
+
+        if (!granted) {
+            lock.lock();
+            try {
+                // 시간 초과와 슬롯 배정이 동시에 일어난 경우 배정된 것으로 처리
+                if (waiter.granted.getCount() == 0) {
+                    granted = true;
+                } else {
+                    queues.get(priority).remove(waiter);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        queueTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!granted) {
+            meterRegistry.counter("scanner.scheduler.timeouts", "priority", priority.name().toLowerCase(Locale.ROOT))
+                    .increment();
+            throw new ScannerUnavailableException("분석 대기 시간이 초과되었습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    private void release(Priority priority) {
+        lock.lock();
+        try {
+            active[priority.ordinal()]--;
+            dispatch();
+            pruneIdleFlows();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 빈 슬롯이 있는 동안 가상 종료 시각이 가장 이른 대기 요청에 배정 (lock 보유 상태에서 호출)
+    private void dispatch() {
+        while (totalActive() < maxConcurrent) {
+            Waiter next = null;
+            for (Priority priority : Priority.values()) {
+                if (priority == Priority.BULK && active[priority.ordinal()] >= bulkMaxSlots) {
+                    continue;
+                }
+                Waiter head = queues.get(priority).peek();
+                if (head != null && (next == null || head.finishTag < next.finishTag)) {
+                    next = head;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+
+            queues.get(next.priority).poll();
+            active[next.priority.ordinal()]++;
+            virtualTime = Math.max(virtualTime, next.finishTag - 1.0 / weight(next.priority));
+            next.granted.countDown();
+        }
+    }
+
+    // 대기 요청이 없고 가상 시각보다 뒤처진 흐름 정보는 의미가 없으므로 제거
+    private void pruneIdleFlows() {
+        if (lastFinishTags.size() > 10_000) {
+            lastFinishTags.values().removeIf(finishTag -> finishTag <= virtualTime);
+        }
+    }
+
+    private double weight(Priority priority) {
+        return priority == Priority.INTERACTIVE ? interactiveWeight : bulkWeight;
+    }
+
+    private int totalActive() {
+        int total = 0;
+        for (int count : active) {
+            total += count;
+        }
+        return total;
+    }
+
+    private int queuedCount(Priority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int activeCount(Priority priority) {
+        lock.lock();
+        try {
+            return active[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Flow(Priority priority, Integer userId) {
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final double finishTag;
+        private final long sequence;
+        private final CountDownLatch granted = new CountDownLatch(1);
+
+        private Waiter(Priority priority, double finishTag, long sequence) {
+            this.priority = priority;
+            this.finishTag = finishTag;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.dto.response.FlaskAnalysisResponse;
+import com.shieldhub.backend.entity.Vulnerabilities;
+import com.shieldhub.backend.repository.VulnerabilitiesRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 취약점 사전 (vulnerability_type + detected_pattern → Vulnerabilities)
+ * 서버 시작 시 DB에서 한 번 읽어 두고, 분석 결과 저장 시 신규 항목만 배치로 추가한다.
+ * 취약점 종류는 분석 수에 비해 매우 적으므로 전부 메모리에 유지한다.
+ */
+@Slf4j
+@Service
+public class VulnerabilityDictionary {
+
+    private final VulnerabilitiesRepository vulnerabilitiesRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final TransactionTemplate requiresNewTransaction;
+
+    private final Map<VulnerabilityKey, Vulnerabilities> entries = new ConcurrentHashMap<>();
+    private final Map<Integer, Vulnerabilities> byId = new ConcurrentHashMap<>();
+
+    // unique 충돌 시 남은 항목 재저장 최대 시도 횟수
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    // 신규 항목 추가는 한 번에 하나씩 (같은 취약점이 중복 저장되지 않도록)
+    private final Object insertLock = new Object();
+
+    public VulnerabilityDictionary(VulnerabilitiesRepository vulnerabilitiesRepository,
+                                   MeterRegistry meterRegistry,
+                                   PlatformTransactionManager transactionManager) {
+        this.vulnerabilitiesRepository = vulnerabilitiesRepository;
+        this.meterRegistry = meterRegistry;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Vulnerabilities> all = vulnerabilitiesRepository.findAll();
+        all.forEach(this::put);
+        meterRegistry.gaugeMapSize("analysis.vulnerability.dictionary.size", List.of(), entries);
+        log.info("취약점 사전 초기화 완료: {}건", entries.size());
+    }
+
+    /**
+     * 분석 결과의 취약점들을 vulnerability_id로 변환 (입력 순서대로, 사전에 없는 항목은 한 번에 저장)
+     * 사전에 없는 항목은 별도 트랜잭션으로 저장하므로 반드시 트랜잭션 밖에서 호출한다.
+     * (바깥 트랜잭션이 커넥션을 잡은 채 전역 락 대기 + 두 번째 커넥션 요청을 하면 풀이 고갈될 수 있음)
+     */
+    public List<Integer> resolveIds(Collection<FlaskAnalysisResponse.VulnerabilityDetail> details) {
+        List<Integer> resolved = new ArrayList<>(details.size());
+        Map<VulnerabilityKey, FlaskAnalysisResponse.VulnerabilityDetail> missing = new LinkedHashMap<>();
+
+        for (FlaskAnalysisResponse.VulnerabilityDetail detail : details) {
+            Vulnerabilities cached = entries.get(VulnerabilityKey.of(detail));
+            if (cached == null) {
+                missing.put(VulnerabilityKey.of(detail), detail);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            meterRegistry.counter("analysis.vulnerability.dictionary", "result", "miss").increment(missing.size());
+            insertMissing(missing);
+        }
+
+        for (FlaskAnalysisResponse.VulnerabilityDetail detail : details) {
+            resolved.add(entries.get(VulnerabilityKey.of(detail)).getVulnerabilityId());
+        }
+        return resolved;
+    }
+
+    /**
+     * vulnerability_id로 취약점 조회 (사전에 없는 항목만 IN 쿼리 한 번으로 읽어 채움)
+     * Vulnerabilities는 저장 후 변경되지 않으므로 캐시 무효화가 필요 없다.
+     */
+    public Map<Integer, Vulnerabilities> findAllById(Collection<Integer> vulnerabilityIds) {
+        Map<Integer, Vulnerabilities> found = new HashMap<>();
+        Set<Integer> missing = new HashSet<>();
+        for (Integer id : vulnerabilityIds) {
+            Vulnerabilities cached = byId.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            meterRegistry.counter("analysis.vulnerability.dictionary", "result", "id-miss").increment(missing.size());
+            for (Vulnerabilities vuln : vulnerabilitiesRepository.findAllById(missing)) {
+                put(vuln);
+                found.put(vuln.getVulnerabilityId(), vuln);
+            }
+        }
+        return found;
+    }
+
+    private void insertMissing(Map<VulnerabilityKey, FlaskAnalysisResponse.VulnerabilityDetail> missing) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("취약점 사전 추가는 트랜잭션 밖에서 호출해야 합니다");
+        }
+        synchronized (insertLock) {
+            // 1. 대기 중 다른 스레드가 추가했을 수 있으므로 다시 확인
+            missing.keySet().removeIf(entries::containsKey);
+            if (missing.isEmpty()) {
+                return;
+            }
+
+            // 2. 다른 서버가 먼저 저장했을 수 있으므로 DB에서 없는 항목만 한 번 조회
+            loadFromDb(missing.keySet());
+            missing.keySet().removeIf(entries::containsKey);
+            if (missing.isEmpty()) {
+                return;
+            }
+
+            // 3. 그래도 없는 항목만 JDBC 배치로 저장 (ID는 IdSequences 블록에서 미리 할당됨)
+            //    (분석 트랜잭션이 롤백되어도 사전과 DB가 어긋나지 않도록 별도 트랜잭션으로 커밋)
+            int added = 0;
+            for (int attempt = 1; !missing.isEmpty(); attempt++) {
+                List<Vulnerabilities> newEntries = new ArrayList<>();
+                missing.values().forEach(detail -> newEntries.add(toEntity(detail)));
+                try {
+                    List<Vulnerabilities> saved = requiresNewTransaction.execute(status ->
+                            vulnerabilitiesRepository.saveAllAndFlush(newEntries));
+                    saved.forEach(this::put);
+                    added += saved.size();
+                } catch (DataIntegrityViolationException e) {
+                    // 그 사이 다른 서버가 일부 항목을 저장함 (unique 제약) → 배치 전체가 롤백되었으므로
+                    // 저장된 행을 다시 조회하고 남은 항목만 다시 저장
+                    // (읽기 전용 복제본은 아직 반영 전일 수 있으므로 쓰기 트랜잭션으로 primary에서 조회)
+                    if (attempt >= MAX_INSERT_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.info("다른 서버가 먼저 추가한 취약점을 다시 조회: {}", e.getMostSpecificCause().getMessage());
+                    requiresNewTransaction.executeWithoutResult(status -> loadFromDb(missing.keySet()));
+                }
+                missing.keySet().removeIf(entries::containsKey);
+            }
+            log.info("취약점 사전에 {}건 추가", added);
+        }
+    }
+
+    // 요청한 키를 DB에서 조회해 사전에 반영 (DB collation이 대소문자를 구분하지 않으므로 요청 키와도 매칭)
+    private void loadFromDb(Set<VulnerabilityKey> wanted) {
+        Set<String> types = new HashSet<>();
+        Set<String> patterns = new HashSet<>();
+        boolean withoutPattern = false;
+        for (VulnerabilityKey key : wanted) {
+            types.add(key.type());
+            if (key.pattern() == null) {
+                withoutPattern = true;
+            } else {
+                patterns.add(key.pattern());
+            }
+        }
+
+        List<Vulnerabilities> found = new ArrayList<>();
+        if (!patterns.isEmpty()) {
+            found.addAll(vulnerabilitiesRepository.findByVulnerabilityTypeInAndDetectedPatternIn(types, patterns));
+        }
+        if (withoutPattern) {
+            found.addAll(vulnerabilitiesRepository.findByVulnerabilityTypeInAndDetectedPatternIsNull(types));
+        }
+
+        Map<VulnerabilityKey, Vulnerabilities> byFoldedKey = new HashMap<>();
+        for (Vulnerabilities vuln : found) {
+            put(vuln);
+            byFoldedKey.putIfAbsent(VulnerabilityKey.of(vuln).folded(), vuln);
+        }
+        for (VulnerabilityKey key : wanted) {
+            if (!entries.containsKey(key)) {
+                Vulnerabilities match = byFoldedKey.get(key.folded());
+                if (match != null) {
+                    entries.put(key, match);
+                }
+            }
+        }
+    }
+
+    private void put(Vulnerabilities vuln) {
+        entries.putIfAbsent(VulnerabilityKey.of(vuln), vuln);
+        byId.putIfAbsent(vuln.getVulnerabilityId(), vuln);
+    }
+
+    private Vulnerabilities toEntity(FlaskAnalysisResponse.VulnerabilityDetail detail) {
+        Vulnerabilities newVuln = new Vulnerabilities();
+        newVuln.setVulnerabilityType(detail.getType());
+        newVuln.setDetectedPattern(detail.getPattern());
+
+        // Enum 변환 (대소문자 무시, 예외 처리 추가)
+        try {
+            newVuln.setSeverity(Vulnerabilities.Severity.valueOf(detail.getSeverity().toUpperCase()));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("알 수 없는 Severity 값: {}. 기본값 HIGH 사용", detail.getSeverity());
+            newVuln.setSeverity(Vulnerabilities.Severity.HIGH); // 기본값
+        }
+
+        newVuln.setDetails(detail.getDetails()); // 상세 설명
+        return newVuln;
+    }
+
+    record VulnerabilityKey(String type, String pattern) {
+        static VulnerabilityKey of(FlaskAnalysisResponse.VulnerabilityDetail detail) {
+            return new VulnerabilityKey(detail.getType(), detail.getPattern());
+        }
+
+        static VulnerabilityKey of(Vulnerabilities vuln) {
+            return new VulnerabilityKey(vuln.getVulnerabilityType(), vuln.getDetectedPattern());
+        }
+
+        VulnerabilityKey folded() {
+            return new VulnerabilityKey(
+                    type == null ? null : type.toLowerCase(Locale.ROOT),
+                    pattern == null ? null : pattern.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.AnalysisResults;
+import com.shieldhub.backend.entity.Vulnerabilities;
+import com.shieldhub.backend.entity.VulnerabilityStatsDaily;
+import com.shieldhub.backend.repository.AnalysisVulnerabilitiesRepository;
+import com.shieldhub.backend.repository.VulnerabilityStatsDailyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 취약점 통계 (사용자/일자/유형/심각도별 발견 건수)
+ * 분석이 완료되는 트랜잭션 안에서 집계 테이블(VulnerabilityStatsDaily)에 증분 반영하고,
+ * 대시보드 조회는 조인 없이 집계 테이블만 읽는다.
+ * 오늘 집계는 조회가 잦으므로 사용자별로 메모리에 두고, 새 분석이 커밋되면 해당 사용자 항목만 비운다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VulnerabilityStatsService {
+
+    private final VulnerabilityStatsDailyRepository statsRepository;
+    private final AnalysisVulnerabilitiesRepository analysisVulnerabilitiesRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.stats.today-cache-ttl-ms:60000}")
+    private long todayCacheTtlMs;
+
+    @Value("${app.stats.max-days:366}")
+    private int maxDays;
+
+    private final Map<Integer, CachedDay> todayCache = new ConcurrentHashMap<>();
+
+    /**
+     * 분석 완료 반영 (분석 상태를 COMPLETED로 저장하는 트랜잭션 안에서 호출)
+     */
+    public void recordCompletion(AnalysisResults analysis) {
+        if (analysis.getUserId() == null) {
+            return;
+        }
+        LocalDate statDate = (analysis.getCompletionDate() != null
+                ? analysis.getCompletionDate().toLocalDate() : LocalDate.now());
+
+        List<VulnerabilityStatsDaily> increments = new ArrayList<>();
+        for (Object[] row : analysisVulnerabilitiesRepository.countByTypeAndSeverity(analysis.getAnalysisId())) {
+            increments.add(new VulnerabilityStatsDaily(
+                    new VulnerabilityStatsDaily.VulnerabilityStatsDailyId(
+                            analysis.getUserId(), statDate, (String) row[0], (Vulnerabilities.Severity) row[1]),
+                    ((Number) row[2]).longValue()));
+        }
+        if (increments.isEmpty()) {
+            return;
+        }
+        statsRepository.batchIncrement(increments);
+
+        // 커밋된 뒤에 오늘 캐시 무효화 (롤백 시에는 그대로)
+        Integer userId = analysis.getUserId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    todayCache.remove(userId);
+                }
+            });
+        } else {
+            todayCache.remove(userId);
+        }
+    }
+
+    /**
+     * 최근 days일 통계 (오늘 포함)
+     */
+    public Map<String, Object> getStats(Integer userId, int days) {
+        int range = Math.min(Math.max(days, 1), maxDays);
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(range - 1L);
+
+        List<VulnerabilityStatsDaily> rows = new ArrayList<>();
+        if (range > 1) {
+            rows.addAll(statsRepository.findByIdUserIdAndIdStatDateBetween(userId, from, today.minusDays(1)));
+        }
+        rows.addAll(getToday(userId, today));
+
+        Map<LocalDate, Map<String, Long>> daily = new TreeMap<>();
+        Map<String, Long> byType = new TreeMap<>();
+        Map<String, Long> bySeverity = new LinkedHashMap<>();
+        for (Vulnerabilities.Severity severity : Vulnerabilities.Severity.values()) {
+            bySeverity.put(severity.name(), 0L);
+        }
+        for (VulnerabilityStatsDaily row : rows) {
+            VulnerabilityStatsDaily.VulnerabilityStatsDailyId id = row.getId();
+            daily.computeIfAbsent(id.getStatDate(), d -> new LinkedHashMap<>())
+                    .merge(id.getSeverity().name(), row.getFindingCount(), Long::sum);
+            byType.merge(id.getVulnerabilityType(), row.getFindingCount(), Long::sum);
+            bySeverity.merge(id.getSeverity().name(), row.getFindingCount(), Long::sum);
+        }
+
+        List<Map<String, Object>> series = new ArrayList<>();
+        daily.forEach((date, counts) -> {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("date", date);
+            point.put("severityCounts", counts);
+            series.add(point);
+        });
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("from", from);
+        stats.put("to", today);
+        stats.put("bySeverity", bySeverity);
+        stats.put("byType", byType);
+        stats.put("daily", series);
+        return stats;
+    }
+
+    private List<VulnerabilityStatsDaily> getToday(Integer userId, LocalDate today) {
+        long now = System.currentTimeMillis();
+        CachedDay cached = todayCache.get(userId);
+        if (cached != null && cached.date().equals(today) && cached.expiresAt() > now) {
+            meterRegistry.counter("stats.today.cache", "result", "hit").increment();
+            return cached.rows();
+        }
+
+        meterRegistry.counter("stats.today.cache", "result", "miss").increment();
+        List<VulnerabilityStatsDaily> rows = List.copyOf(
+                statsRepository.findByIdUserIdAndIdStatDateBetween(userId, today, today));
+        todayCache.put(userId, new CachedDay(today, rows, now + todayCacheTtlMs));
+        return rows;
+    }
+
+    // 만료된 오늘 캐시 정리
+    @Scheduled(fixedDelayString = "${app.stats.today-cache-ttl-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        todayCache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private record CachedDay(LocalDate date, List<VulnerabilityStatsDaily> rows, long expiresAt) {
+    }
+}
@@ -8,6 +8,7 @@ import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.Base64;
@@ -83,6 +84,22 @@ public class EncryptionUtil {
         return new SecretKeySpec(keyBytes, "AES");
     }
 
+    // 문자열을 마스터키로 암호화 (발송 대기 메일 본문 등 DB에 잠시 보관하는 민감 정보용)
+    public String encryptText(String plainText) throws Exception {
+        byte[] encrypted = encryptFile(plainText.getBytes(StandardCharsets.UTF_8), masterKey());
+        return Base64.getEncoder().encodeToString(encrypted);
+    }
+
+    // encryptText로 암호화한 문자열 복호화
+    public String decryptText(String encryptedText) throws Exception {
+        byte[] decrypted = decryptFile(Base64.getDecoder().decode(encryptedText), masterKey());
+        return new String(decrypted, StandardCharsets.UTF_8);
+    }
+
+    private SecretKey masterKey() {
+        return new SecretKeySpec(masterKeyString.getBytes(), 0, 32, "AES");
+    }
+
     // SHA-256 해시 생성
     public String generateSHA256(byte[] data) throws Exception {
         MessageDigest digest = MessageDigest.getInstance("SHA-256");
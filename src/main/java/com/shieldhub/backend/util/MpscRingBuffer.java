@@ -0,0 +1,89 @@
+package com.shieldhub.backend.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 고정 크기 다중 생산자 / 단일 소비자 링 버퍼 (잠금 없음)
+ * 슬롯마다 순번을 두어 생산자는 tail CAS 한 번으로 자리를 잡고, 값을 쓴 뒤 순번을 올려 소비자에게 공개한다.
+ * - offer: 여러 스레드에서 호출 가능, 가득 차면 즉시 false
+ * - poll / drainTo: 소비자 스레드 하나에서만 호출
+ */
+public class MpscRingBuffer<T> {
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity 2의 거듭제곱으로 올림
+     */
+    public MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.buffer = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[index] = item;
+                    // 순번 갱신(volatile write)으로 위의 값 쓰기를 소비자에게 공개
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        T item = (T) buffer[index];
+        buffer[index] = null;
+        sequences.set(index, position + buffer.length);
+        head = position + 1;
+        return item;
+    }
+
+    /**
+     * 최대 maxItems개를 꺼내 target에 추가하고 꺼낸 개수 반환
+     */
+    public int drainTo(List<? super T> target, int maxItems) {
+        int drained = 0;
+        T item;
+        while (drained < maxItems && (item = poll()) != null) {
+            target.add(item);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+}
@@ -0,0 +1,96 @@
+package com.shieldhub.backend.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 분석 대상 URL 정규화 (같은 페이지를 가리키는 URL을 하나의 키로 묶기 위함)
+ * - 스킴 생략 시 http
+ * - 스킴/호스트 소문자, 기본 포트(80/443) 제거
+ * - 빈 경로는 "/", "."/".." 경로 정리
+ * - fragment(#...) 제거, 쿼리 파라미터 정렬
+ */
+public final class UrlCanonicalizer {
+
+    private UrlCanonicalizer() {
+    }
+
+    public static String canonicalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        String trimmed = url.trim();
+        if (!trimmed.contains("://")) {
+            trimmed = "http://" + trimmed;
+        }
+
+        try {
+            URI uri = new URI(trimmed).normalize();
+            String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase(Locale.ROOT);
+            String host = uri.getHost() == null ? null : uri.getHost().toLowerCase(Locale.ROOT);
+            if (host == null) {
+                return trimmed;
+            }
+            if (host.endsWith(".")) {
+                host = host.substring(0, host.length() - 1);
+            }
+
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+            StringBuilder canonical = new StringBuilder()
+                    .append(scheme).append("://").append(host);
+            if (port != -1) {
+                canonical.append(':').append(port);
+            }
+            canonical.append(path);
+
+            String query = uri.getRawQuery();
+            if (query != null && !query.isEmpty()) {
+                String[] params = query.split("&");
+                Arrays.sort(params);
+                canonical.append('?').append(String.join("&", params));
+            }
+            return canonical.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+
+    /**
+     * URL의 호스트를 레이블 역순으로 변환 (https://www.Example.com/a -> "com.example.www.")
+     * 도메인 검색을 B-tree 인덱스 접두어 조회(LIKE 'com.example.%')로 처리하기 위함
+     * 호스트가 없으면 빈 문자열
+     */
+    public static String reversedHost(String url) {
+        String canonical = canonicalize(url);
+        if (canonical == null) {
+            return "";
+        }
+        try {
+            return reverseDomain(new URI(canonical).getHost());
+        } catch (URISyntaxException e) {
+            return "";
+        }
+    }
+
+    public static String reverseDomain(String domain) {
+        if (domain == null || domain.isBlank()) {
+            return "";
+        }
+        String[] labels = domain.trim().toLowerCase(Locale.ROOT).split("\\.");
+        StringBuilder reversed = new StringBuilder();
+        for (int i = labels.length - 1; i >= 0; i--) {
+            if (!labels[i].isEmpty()) {
+                reversed.append(labels[i]).append('.');
+            }
+        }
+        return reversed.toString();
+    }
+}
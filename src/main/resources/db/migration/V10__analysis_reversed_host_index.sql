@@ -0,0 +1,4 @@
+-- 검색 색인 보충(AnalysisSearchService.backfill)의 reversed_host IS NULL 조회용 인덱스
+-- (user_id로 시작하는 idx_analysis_user_host로는 처리되지 않아 매번 전체 스캔이 발생)
+ALTER TABLE AnalysisResults
+    ADD INDEX idx_analysis_reversed_host (reversed_host);
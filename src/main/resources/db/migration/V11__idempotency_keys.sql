@@ -0,0 +1,18 @@
+-- Idempotency-Key 저장소 (IdempotencyService)
+-- 서버가 여러 대여도 같은 키의 재시도가 어느 서버로 가든 한 번만 실행되도록 (scope, user_id, idempotency_key)를 PK로 선점한다.
+-- 처리 중(IN_PROGRESS)인 행은 claim_token을 가진 서버만 완료/해제할 수 있고, expires_at이 지나면 다른 요청이 다시 선점한다.
+
+CREATE TABLE IF NOT EXISTS IdempotencyKeys (
+    scope           VARCHAR(50)                        NOT NULL,
+    user_id         INT                                NOT NULL,
+    idempotency_key VARCHAR(255)                       NOT NULL,
+    fingerprint     CHAR(64)                           NOT NULL,
+    claim_token     CHAR(36)                           NOT NULL,
+    status          ENUM ('IN_PROGRESS', 'COMPLETED') NOT NULL,
+    response        LONGTEXT,
+    expires_at      DATETIME(6)                        NOT NULL,
+    created_at      DATETIME(6)                        NOT NULL,
+    PRIMARY KEY (scope, user_id, idempotency_key),
+    INDEX idx_idempotency_user_expires (user_id, expires_at),
+    INDEX idx_idempotency_expires (expires_at)
+) ENGINE = InnoDB;
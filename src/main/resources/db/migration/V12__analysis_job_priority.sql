@@ -0,0 +1,12 @@
+-- 분석 작업 우선순위
+-- 대량 분석 URL도 PENDING 작업으로 등록하고, AnalysisJobWorker가 단건 분석(INTERACTIVE)과 따로
+-- 제한된 슬롯에서 BULK 우선순위로 실행한다. 대기 작업 선점 조회가 우선순위별로 나뉘므로 인덱스에 포함.
+ALTER TABLE AnalysisResults
+    ADD COLUMN priority ENUM ('INTERACTIVE', 'BULK') NOT NULL DEFAULT 'INTERACTIVE' AFTER analysis_status,
+    DROP INDEX idx_analysis_status_user_id,
+    ADD INDEX idx_analysis_status_priority_user_id (analysis_status, priority, user_id, analysis_id);
+
+ALTER TABLE AnalysisResultsArchive
+    ADD COLUMN priority ENUM ('INTERACTIVE', 'BULK') NOT NULL DEFAULT 'INTERACTIVE' AFTER analysis_status,
+    DROP INDEX idx_analysis_status_user_id,
+    ADD INDEX idx_analysis_status_priority_user_id (analysis_status, priority, user_id, analysis_id);
@@ -0,0 +1,64 @@
+-- 기준 스키마 (Flyway 도입 전 ddl-auto: update로 운영하던 시점에 Hibernate가 만들던 구조와 동일)
+-- 기존 DB는 spring.flyway.baseline-on-migrate로 이 버전을 적용된 것으로 간주하고 V2부터 실행한다.
+-- 이 파일은 수정하지 않는다. 이후 변경은 모두 V2 이상의 마이그레이션으로 추가한다.
+
+CREATE TABLE IF NOT EXISTS Users (
+    user_id        INT          NOT NULL AUTO_INCREMENT,
+    username       VARCHAR(255) NOT NULL,
+    password_hash  VARCHAR(255) NOT NULL,
+    name           VARCHAR(100) NOT NULL,
+    phone_number   VARCHAR(20),
+    email          VARCHAR(255),
+    otp_secret     VARCHAR(255),
+    is_otp_enabled BIT,
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    PRIMARY KEY (user_id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS FileMetadata (
+    file_id     INT          NOT NULL AUTO_INCREMENT,
+    file_name   VARCHAR(255) NOT NULL,
+    user_id     INT          NOT NULL,
+    file_path   VARCHAR(255) NOT NULL,
+    file_size   BIGINT,
+    upload_date DATETIME(6)  NOT NULL,
+    sha256_hash VARCHAR(64)  NOT NULL,
+    PRIMARY KEY (file_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS FileHistory (
+    history_id  INT                               NOT NULL AUTO_INCREMENT,
+    file_id     INT                               NOT NULL,
+    action_type ENUM ('ENCRYPTION', 'DECRYPTION') NOT NULL,
+    `timestamp` DATETIME(6)                       NOT NULL,
+    PRIMARY KEY (history_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS AnalysisResults (
+    analysis_id     INT          NOT NULL AUTO_INCREMENT,
+    user_id         INT,
+    url_to_analyze  VARCHAR(255) NOT NULL,
+    analysis_date   DATETIME(6)  NOT NULL,
+    analysis_status ENUM ('PENDING', 'IN_PROGRESS', 'COMPLETED', 'FAILED'),
+    completion_date DATETIME(6),
+    error_message   VARCHAR(255),
+    PRIMARY KEY (analysis_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS Vulnerabilities (
+    vulnerability_id   INT                                        NOT NULL AUTO_INCREMENT,
+    vulnerability_type VARCHAR(255)                               NOT NULL,
+    severity           ENUM ('CRITICAL', 'HIGH', 'MEDIUM', 'LOW') NOT NULL,
+    details            VARCHAR(255),
+    detected_pattern   VARCHAR(255),
+    PRIMARY KEY (vulnerability_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS AnalysisVulnerabilities (
+    analysis_id       INT NOT NULL,
+    vulnerability_id  INT NOT NULL,
+    detection_context VARCHAR(255),
+    PRIMARY KEY (analysis_id, vulnerability_id)
+) ENGINE = InnoDB;
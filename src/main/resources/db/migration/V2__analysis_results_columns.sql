@@ -0,0 +1,19 @@
+-- 분석 작업 큐 / 결과 재사용 / 이력 검색에 추가된 컬럼과 조회 인덱스
+
+-- 작업 큐: 실행 시작 시각, 재시도 횟수
+-- 결과 재사용 / 검색: 정규화 URL, 뒤집은 호스트(도메인 접미사 검색용)
+ALTER TABLE AnalysisResults
+    ADD COLUMN canonical_url VARCHAR(255) AFTER url_to_analyze,
+    ADD COLUMN reversed_host VARCHAR(255) AFTER canonical_url,
+    ADD COLUMN started_at    DATETIME(6) AFTER analysis_status,
+    ADD COLUMN attempt_count INT AFTER started_at;
+
+ALTER TABLE AnalysisResults
+    ADD INDEX idx_analysis_user_date_id (user_id, analysis_date, analysis_id),
+    ADD INDEX idx_analysis_status_user_id (analysis_status, user_id, analysis_id),
+    ADD INDEX idx_analysis_user_host (user_id, reversed_host),
+    ADD INDEX idx_analysis_user_canonical_url (user_id, canonical_url),
+    ADD INDEX idx_analysis_date (analysis_date);
+
+-- 보관 기간 정리 대상 조회
+CREATE INDEX idx_file_history_timestamp ON FileHistory (`timestamp`);
@@ -0,0 +1,18 @@
+-- 취약점 유형별 분석 역색인 (이력 검색)과 사용자별 일간 취약점 집계
+
+CREATE TABLE IF NOT EXISTS AnalysisTypeIndex (
+    vulnerability_type VARCHAR(255) NOT NULL,
+    user_id            INT          NOT NULL,
+    analysis_id        INT          NOT NULL,
+    PRIMARY KEY (vulnerability_type, user_id, analysis_id),
+    INDEX idx_type_index_analysis (analysis_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS VulnerabilityStatsDaily (
+    user_id            INT                                        NOT NULL,
+    stat_date          DATE                                       NOT NULL,
+    vulnerability_type VARCHAR(255)                               NOT NULL,
+    severity           ENUM ('CRITICAL', 'HIGH', 'MEDIUM', 'LOW') NOT NULL,
+    finding_count      BIGINT                                     NOT NULL,
+    PRIMARY KEY (user_id, stat_date, vulnerability_type, severity)
+) ENGINE = InnoDB;
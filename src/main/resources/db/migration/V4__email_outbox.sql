@@ -0,0 +1,16 @@
+-- 비밀번호 재설정 메일 발송용 트랜잭션 아웃박스 (EmailOutboxDispatcher)
+
+CREATE TABLE IF NOT EXISTS EmailOutbox (
+    outbox_id       BIGINT                                         NOT NULL AUTO_INCREMENT,
+    recipient       VARCHAR(255)                                   NOT NULL,
+    subject         VARCHAR(255)                                   NOT NULL,
+    html_content    LONGTEXT,
+    status          ENUM ('PENDING', 'SENDING', 'SENT', 'FAILED') NOT NULL,
+    attempts        INT                                            NOT NULL,
+    next_attempt_at DATETIME(6)                                    NOT NULL,
+    locked_until    DATETIME(6),
+    last_error      VARCHAR(255),
+    created_at      DATETIME(6)                                    NOT NULL,
+    sent_at         DATETIME(6),
+    PRIMARY KEY (outbox_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+-- 보관 기간 정리(RetentionService)용 보관 테이블 (원본과 같은 구조)
+-- 정리 작업은 컬럼을 명시한 INSERT ... SELECT로 옮기므로, 이후 원본 테이블에 컬럼을 추가/변경하는 마이그레이션은
+-- 같은 변경을 *Archive 테이블과 RetentionService의 컬럼 목록에도 함께 적용해야 한다.
+
+CREATE TABLE IF NOT EXISTS AnalysisResultsArchive LIKE AnalysisResults;
+CREATE TABLE IF NOT EXISTS AnalysisVulnerabilitiesArchive LIKE AnalysisVulnerabilities;
+CREATE TABLE IF NOT EXISTS FileHistoryArchive LIKE FileHistory;
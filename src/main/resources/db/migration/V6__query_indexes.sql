@@ -0,0 +1,48 @@
+-- 자주 쓰는 조회 조건 인덱스
+-- AnalysisResults(user_id, analysis_date)는 idx_analysis_user_date_id(user_id, analysis_date, analysis_id)의
+-- 앞부분으로 이미 처리되므로 따로 만들지 않는다.
+
+-- 내 파일 목록 / 파일별 이력
+CREATE INDEX idx_file_metadata_user ON FileMetadata (user_id);
+CREATE INDEX idx_file_history_file ON FileHistory (file_id);
+
+-- 아이디 찾기 / 비밀번호 재설정 / 중복 확인
+CREATE INDEX idx_users_email ON Users (email);
+CREATE INDEX idx_users_phone_number ON Users (phone_number);
+
+-- 취약점 사전 중복 제거 후 (유형, 패턴) unique 제약 추가
+-- 1. 중복 행은 가장 작은 vulnerability_id 하나만 남기고, 분석 연결을 그 id로 옮긴다.
+CREATE TABLE VulnerabilityIdRemap AS
+SELECT v.vulnerability_id AS old_id, k.keep_id AS new_id
+FROM Vulnerabilities v
+         JOIN (SELECT vulnerability_type, detected_pattern, MIN(vulnerability_id) AS keep_id
+               FROM Vulnerabilities
+               WHERE detected_pattern IS NOT NULL
+               GROUP BY vulnerability_type, detected_pattern
+               HAVING COUNT(*) > 1) k
+              ON v.vulnerability_type = k.vulnerability_type AND v.detected_pattern = k.detected_pattern
+WHERE v.vulnerability_id <> k.keep_id;
+
+-- 같은 분석에 남길 id가 이미 연결되어 있으면 그대로 두고 중복 연결만 삭제
+INSERT IGNORE INTO AnalysisVulnerabilities (analysis_id, vulnerability_id, detection_context)
+SELECT av.analysis_id, r.new_id, av.detection_context
+FROM AnalysisVulnerabilities av
+         JOIN VulnerabilityIdRemap r ON av.vulnerability_id = r.old_id;
+
+DELETE av
+FROM AnalysisVulnerabilities av
+         JOIN VulnerabilityIdRemap r ON av.vulnerability_id = r.old_id;
+
+UPDATE IGNORE AnalysisVulnerabilitiesArchive av
+    JOIN VulnerabilityIdRemap r ON av.vulnerability_id = r.old_id
+SET av.vulnerability_id = r.new_id;
+
+DELETE v
+FROM Vulnerabilities v
+         JOIN VulnerabilityIdRemap r ON v.vulnerability_id = r.old_id;
+
+DROP TABLE VulnerabilityIdRemap;
+
+-- 2. 여러 서버가 같은 항목을 동시에 추가해도 한 행만 남도록 보장
+ALTER TABLE Vulnerabilities
+    ADD CONSTRAINT uk_vulnerabilities_type_pattern UNIQUE (vulnerability_type, detected_pattern);
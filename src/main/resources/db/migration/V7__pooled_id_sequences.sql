@@ -0,0 +1,29 @@
+-- IDENTITY 키 대신 블록 단위 ID 할당 (Hibernate @TableGenerator, pooled optimizer)
+-- 서버는 next_val을 allocationSize(50)만큼 올리고 그 구간의 ID를 메모리에서 나눠 쓰므로
+-- 여러 행 INSERT를 JDBC 배치로 묶을 수 있다.
+
+CREATE TABLE IF NOT EXISTS IdSequences (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
+
+-- 기존 최대 ID보다 allocationSize 두 배 이상 큰 값에서 시작 (첫 블록이 기존 ID와 겹치지 않도록)
+INSERT INTO IdSequences (sequence_name, next_val)
+SELECT 'AnalysisResults', COALESCE(MAX(analysis_id), 0) + 100 FROM AnalysisResults;
+INSERT INTO IdSequences (sequence_name, next_val)
+SELECT 'Vulnerabilities', COALESCE(MAX(vulnerability_id), 0) + 100 FROM Vulnerabilities;
+INSERT INTO IdSequences (sequence_name, next_val)
+SELECT 'FileMetadata', COALESCE(MAX(file_id), 0) + 100 FROM FileMetadata;
+INSERT INTO IdSequences (sequence_name, next_val)
+SELECT 'FileHistory', COALESCE(MAX(history_id), 0) + 100 FROM FileHistory;
+
+-- ID는 애플리케이션이 정하므로 AUTO_INCREMENT 제거 (직접 INSERT가 겹치는 ID를 받는 일이 없도록)
+ALTER TABLE AnalysisResults MODIFY analysis_id INT NOT NULL;
+ALTER TABLE Vulnerabilities MODIFY vulnerability_id INT NOT NULL;
+ALTER TABLE FileMetadata MODIFY file_id INT NOT NULL;
+ALTER TABLE FileHistory MODIFY history_id INT NOT NULL;
+
+-- 보관 테이블도 원본과 같은 구조 유지
+ALTER TABLE AnalysisResultsArchive MODIFY analysis_id INT NOT NULL;
+ALTER TABLE FileHistoryArchive MODIFY history_id INT NOT NULL;
@@ -0,0 +1,10 @@
+-- 파일 감사 이력 스풀 체크포인트 (FileAuditWriter)
+-- FileHistory 묶음 저장과 같은 트랜잭션에서 마지막으로 저장한 스풀 순번을 기록해,
+-- 재시작 시 스풀에서 그 이후 이벤트만 다시 저장한다.
+
+CREATE TABLE IF NOT EXISTS FileAuditCheckpoint (
+    spool_id      VARCHAR(36) NOT NULL,
+    last_sequence BIGINT      NOT NULL,
+    updated_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (spool_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,32 @@
+-- 이메일 중복 가입 방지 (아이디 찾기 / 비밀번호 재설정이 이메일로 한 명을 찾으므로 unique 필요)
+-- 1. 빈 문자열은 미입력(NULL)으로 정리
+UPDATE Users SET email = NULL WHERE email = '';
+
+-- 2. 같은 이메일이 여러 계정에 있으면 가장 먼저 가입한 계정만 유지하고 나머지는 NULL로 비운다.
+--    비운 값은 UsersEmailConflict에 남겨 운영자가 확인 후 계정 주인에게 재등록을 안내한다.
+CREATE TABLE IF NOT EXISTS UsersEmailConflict (
+    user_id     INT          NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    detected_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+INSERT INTO UsersEmailConflict (user_id, email, detected_at)
+SELECT u.user_id, u.email, NOW(6)
+FROM Users u
+         JOIN (SELECT email, MIN(user_id) AS keep_id
+               FROM Users
+               WHERE email IS NOT NULL
+               GROUP BY email
+               HAVING COUNT(*) > 1) d
+              ON u.email = d.email
+WHERE u.user_id <> d.keep_id;
+
+UPDATE Users u
+    JOIN UsersEmailConflict c ON u.user_id = c.user_id
+SET u.email = NULL;
+
+-- 3. 일반 인덱스를 unique 제약으로 교체 (NULL은 여러 행 허용)
+ALTER TABLE Users
+    DROP INDEX idx_users_email,
+    ADD CONSTRAINT uk_users_email UNIQUE (email);
@@ -0,0 +1,120 @@
+package com.shieldhub.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 읽기 복제본 라우팅 (ReplicaDataSourceConfig와 같은 구성을 로컬 인메모리 DB 두 개로 재현)
+ * 복제본에는 행을 복제하지 않으므로, 복제본에서 보이는지 여부로 어느 DB에서 읽었는지 판단한다.
+ */
+class ReplicaRoutingTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+
+    @BeforeEach
+    void setUp() {
+        primary = localDatabase("primary");
+        replica = localDatabase("replica");
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.isAvailable()).thenReturn(true);
+    }
+
+    @Test
+    void readOnlyTransactionReadsReplicaAndWriteTransactionReadsPrimary() {
+        Routing routing = new Routing(replica);
+        routing.writeTransaction.executeWithoutResult(status ->
+                routing.jdbc.update("INSERT INTO AnalysisResults (analysis_id, analysis_status) VALUES (1, 'PENDING')"));
+
+        // 복제본에 아직 반영되지 않은 직후 조회: 읽기 전용은 못 찾고, 쓰기 트랜잭션(primary)에서는 찾음
+        assertThat(routing.countInReadOnly(1)).isZero();
+        assertThat(routing.countInWrite(1)).isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyTransactionFallsBackToPrimaryWhenReplicaLags() {
+        Routing routing = new Routing(replica);
+        routing.writeTransaction.executeWithoutResult(status ->
+                routing.jdbc.update("INSERT INTO AnalysisResults (analysis_id, analysis_status) VALUES (2, 'PENDING')"));
+
+        when(lagMonitor.isAvailable()).thenReturn(false);
+
+        assertThat(routing.countInReadOnly(2)).isEqualTo(1);
+    }
+
+    @Test
+    void replicaConnectionFailureMarksReplicaUnavailableAndUsesPrimary() throws SQLException {
+        DataSource brokenReplica = mock(DataSource.class);
+        when(brokenReplica.getConnection()).thenThrow(new SQLException("replica down"));
+        Routing routing = new Routing(brokenReplica);
+        routing.writeTransaction.executeWithoutResult(status ->
+                routing.jdbc.update("INSERT INTO AnalysisResults (analysis_id, analysis_status) VALUES (3, 'PENDING')"));
+
+        assertThat(routing.countInReadOnly(3)).isEqualTo(1);
+        verify(lagMonitor).markUnavailable(any(SQLException.class));
+    }
+
+    @Test
+    void lagMonitorTreatsUnreadableReplicationStatusAsUnavailable() {
+        // 로컬 DB는 SHOW REPLICA STATUS를 지원하지 않음 → 상태 확인 실패 = 사용 불가
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, 5, new SimpleMeterRegistry());
+
+        assertThat(monitor.isAvailable()).isFalse();
+    }
+
+    private static DataSource localDatabase(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute(
+                "CREATE TABLE AnalysisResults (analysis_id INT PRIMARY KEY, analysis_status VARCHAR(20))");
+        return dataSource;
+    }
+
+    private final class Routing {
+
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate writeTransaction;
+        private final TransactionTemplate readOnlyTransaction;
+
+        private Routing(DataSource replicaTarget) {
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+            proxy.setReadOnlyDataSource(
+                    new ReplicaFallbackDataSource(replicaTarget, primary, lagMonitor, new SimpleMeterRegistry()));
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+            this.jdbc = new JdbcTemplate(proxy);
+            this.writeTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+        }
+
+        private int countInReadOnly(int analysisId) {
+            return readOnlyTransaction.execute(status -> count(analysisId));
+        }
+
+        private int countInWrite(int analysisId) {
+            return writeTransaction.execute(status -> count(analysisId));
+        }
+
+        private int count(int analysisId) {
+            return jdbc.queryForObject(
+                    "SELECT COUNT(*) FROM AnalysisResults WHERE analysis_id = ?", Integer.class, analysisId);
+        }
+    }
+}
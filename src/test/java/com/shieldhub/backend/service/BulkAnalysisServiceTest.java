@@ -0,0 +1,142 @@
+package com.shieldhub.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shieldhub.backend.entity.AnalysisResults;
+import com.shieldhub.backend.exception.TooManyRequestsException;
+import com.shieldhub.backend.repository.AnalysisResultsRepository;
+import com.shieldhub.backend.repository.AnalysisVulnerabilitiesRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 대량 분석 작업 등록 / 진행 상황 스트림 (저장소는 메모리 목록으로 대체)
+ */
+class BulkAnalysisServiceTest {
+
+    private static final int USER_ID = 7;
+
+    private final Map<Integer, AnalysisResults> rows = new LinkedHashMap<>();
+    private AnalysisResultsRepository repository;
+    private ApplicationEventPublisher eventPublisher;
+    private BulkAnalysisService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(AnalysisResultsRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AnalysisResults> records = invocation.getArgument(0);
+            for (AnalysisResults record : records) {
+                record.setAnalysisId(100 + rows.size());
+                rows.put(record.getAnalysisId(), record);
+            }
+            return records;
+        });
+        when(repository.findByAnalysisIdInAndStatusIn(anyCollection(), anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(0);
+            Collection<AnalysisResults.AnalysisStatus> statuses = invocation.getArgument(1);
+            return ids.stream().map(rows::get).filter(row -> statuses.contains(row.getStatus())).toList();
+        });
+        AnalysisVulnerabilitiesRepository vulnerabilitiesRepository = mock(AnalysisVulnerabilitiesRepository.class);
+        when(vulnerabilitiesRepository.countByAnalysisIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{100, 3L}));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        service = new BulkAnalysisService(repository, vulnerabilitiesRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher,
+                new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxUrls", 5000);
+        ReflectionTestUtils.setField(service, "maxPendingPerUser", 10);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "pollIntervalMs", 20L);
+        ReflectionTestUtils.setField(service, "requestTimeoutMs", 3_600_000L);
+    }
+
+    @Test
+    void submitQueuesBulkJobsInBatches() {
+        List<Integer> ids = service.submit(USER_ID, List.of("https://a.example", "https://b.example", "https://c.example"));
+
+        assertThat(ids).containsExactly(100, 101, 102);
+        assertThat(rows.values()).allSatisfy(row -> {
+            assertThat(row.getStatus()).isEqualTo(AnalysisResults.AnalysisStatus.PENDING);
+            assertThat(row.getPriority()).isEqualTo(AnalysisResults.Priority.BULK);
+            assertThat(row.getUserId()).isEqualTo(USER_ID);
+        });
+        // 묶음마다 커밋 후 워커를 깨움
+        verify(repository, times(2)).saveAll(anyList());
+        verify(eventPublisher, times(2)).publishEvent(any(AnalysisSubmittedEvent.class));
+    }
+
+    @Test
+    void submitRejectsWhenTooManyBulkJobsArePending() {
+        when(repository.countByUserIdAndStatusAndPriority(USER_ID, AnalysisResults.AnalysisStatus.PENDING,
+                AnalysisResults.Priority.BULK)).thenReturn(9L);
+
+        assertThatThrownBy(() -> service.submit(USER_ID, List.of("https://a.example", "https://b.example")))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(rows).isEmpty();
+    }
+
+    @Test
+    void streamReportsJobsAsTheyFinish() throws Exception {
+        List<Integer> ids = service.submit(USER_ID, List.of("https://a.example", "https://b.example"));
+        finish(100, AnalysisResults.AnalysisStatus.COMPLETED);
+        finish(101, AnalysisResults.AnalysisStatus.FAILED);
+
+        List<JsonNode> lines = stream(ids);
+
+        assertThat(lines).extracting(line -> line.get("type").asText())
+                .containsExactly("submitted", "result", "result", "summary");
+        assertThat(lines.get(0).get("analysisIds")).hasSize(2);
+        assertThat(lines.get(1).get("vulnerabilityCount").asInt()).isEqualTo(3);
+        assertThat(lines.get(3).get("completed").asInt()).isEqualTo(1);
+        assertThat(lines.get(3).get("failed").asInt()).isEqualTo(1);
+        assertThat(lines.get(3).get("pending").asInt()).isZero();
+    }
+
+    @Test
+    void streamEndsBeforeRequestTimeoutAndLeavesUnfinishedJobsQueued() throws Exception {
+        // 요청 제한 시간이 지나기 전에 요약을 보내고 종료 (남은 작업은 PENDING으로 남아 워커가 계속 실행)
+        ReflectionTestUtils.setField(service, "requestTimeoutMs", 0L);
+        List<Integer> ids = service.submit(USER_ID, List.of("https://a.example", "https://b.example"));
+        finish(100, AnalysisResults.AnalysisStatus.COMPLETED);
+
+        List<JsonNode> lines = stream(ids);
+
+        JsonNode summary = lines.get(lines.size() - 1);
+        assertThat(summary.get("type").asText()).isEqualTo("summary");
+        assertThat(summary.get("completed").asInt()).isEqualTo(1);
+        assertThat(summary.get("pending").asInt()).isEqualTo(1);
+        assertThat(rows.get(101).getStatus()).isEqualTo(AnalysisResults.AnalysisStatus.PENDING);
+    }
+
+    private void finish(int analysisId, AnalysisResults.AnalysisStatus status) {
+        rows.get(analysisId).setStatus(status);
+    }
+
+    private List<JsonNode> stream(List<Integer> ids) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.stream(ids).writeTo(out);
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
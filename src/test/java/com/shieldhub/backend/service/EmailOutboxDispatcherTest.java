@@ -0,0 +1,240 @@
+package com.shieldhub.backend.service;
+
+import com.shieldhub.backend.entity.EmailOutbox;
+import com.shieldhub.backend.repository.EmailOutboxRepository;
+import com.shieldhub.backend.util.EncryptionUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Outbox 메일 발송 (실제 SMTP 대신 로컬 소켓에서 최소한의 SMTP 대화만 처리하는 서버 사용)
+ */
+class EmailOutboxDispatcherTest {
+
+    private static final String TEMP_PASSWORD = "Tmp-Pa55word!";
+
+    private LocalSmtpServer smtpServer;
+    private EmailOutboxRepository repository;
+    private EmailService emailService;
+    private EmailOutboxDispatcher dispatcher;
+    private final List<EmailOutbox> queued = new ArrayList<>();
+    private final List<LocalDateTime> claimedLeases = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new LocalSmtpServer();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+        mailSender.setPort(smtpServer.port());
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "5000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+
+        EncryptionUtil encryptionUtil = new EncryptionUtil();
+        ReflectionTestUtils.setField(encryptionUtil, "masterKeyString", "0123456789abcdef0123456789abcdef");
+
+        repository = mock(EmailOutboxRepository.class);
+        when(repository.save(any(EmailOutbox.class))).thenAnswer(invocation -> {
+            EmailOutbox outbox = invocation.getArgument(0);
+            queued.add(outbox);
+            return outbox;
+        });
+        when(repository.findDueForUpdate(any(LocalDateTime.class), anyInt()))
+                .thenAnswer(invocation -> queued.stream()
+                        .filter(outbox -> outbox.getStatus() == EmailOutbox.OutboxStatus.PENDING)
+                        .toList());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<EmailOutbox> batch = invocation.getArgument(0);
+            batch.stream()
+                    .filter(outbox -> outbox.getStatus() == EmailOutbox.OutboxStatus.SENDING)
+                    .forEach(outbox -> claimedLeases.add(outbox.getLockedUntil()));
+            return batch;
+        });
+
+        emailService = new EmailService(mailSender, repository, encryptionUtil);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@shieldhub.test");
+        ReflectionTestUtils.setField(emailService, "fromName", "ShieldHub Test");
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        dispatcher = new EmailOutboxDispatcher(repository, emailService, mailSender, transactionTemplate,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 20);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 120L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 6);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffSeconds", 30L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffSeconds", 3600L);
+        ReflectionTestUtils.setField(dispatcher, "smtpConnectionTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(dispatcher, "smtpTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(dispatcher, "smtpWriteTimeoutMs", 10_000L);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpServer.close();
+    }
+
+    @Test
+    void queuedContentIsEncryptedAndClearedAfterDelivery() throws Exception {
+        emailService.queuePasswordResetEmail("user@shieldhub.test", "tester", TEMP_PASSWORD);
+        EmailOutbox outbox = queued.get(0);
+        assertThat(outbox.getHtmlContent()).doesNotContain(TEMP_PASSWORD);
+
+        dispatcher.dispatch();
+
+        assertThat(smtpServer.received).hasSize(1);
+        assertThat(textOf(smtpServer.received.get(0))).contains(TEMP_PASSWORD);
+        assertThat(outbox.getStatus()).isEqualTo(EmailOutbox.OutboxStatus.SENT);
+        assertThat(outbox.getHtmlContent()).isNull();
+        assertThat(outbox.getLockedUntil()).isNull();
+    }
+
+    @Test
+    void rejectedRecipientIsRetriedLaterWithContentKept() {
+        smtpServer.rejectRecipients = true;
+        emailService.queuePasswordResetEmail("user@shieldhub.test", "tester", TEMP_PASSWORD);
+        EmailOutbox outbox = queued.get(0);
+
+        dispatcher.dispatch();
+
+        assertThat(smtpServer.received).isEmpty();
+        assertThat(outbox.getStatus()).isEqualTo(EmailOutbox.OutboxStatus.PENDING);
+        assertThat(outbox.getAttempts()).isEqualTo(1);
+        assertThat(outbox.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(outbox.getHtmlContent()).isNotNull().doesNotContain(TEMP_PASSWORD);
+    }
+
+    @Test
+    void leaseCoversWorstCaseBatchSendTime() {
+        emailService.queuePasswordResetEmail("user@shieldhub.test", "tester", TEMP_PASSWORD);
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.dispatch();
+
+        // 20건 × (쓰기 10초 + 응답 4회 × 10초) 이상 = 설정값 120초보다 길어야 함
+        assertThat(claimedLeases).hasSize(1);
+        assertThat(claimedLeases.get(0)).isAfter(before.plusSeconds(20 * 50));
+    }
+
+    private static String textOf(byte[] rawMessage) throws Exception {
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()),
+                new ByteArrayInputStream(rawMessage));
+        return textOf(message);
+    }
+
+    private static String textOf(Part part) throws Exception {
+        Object content = part.getContent();
+        if (content instanceof String text) {
+            return text;
+        }
+        StringBuilder text = new StringBuilder();
+        if (content instanceof Multipart multipart) {
+            for (int i = 0; i < multipart.getCount(); i++) {
+                text.append(textOf(multipart.getBodyPart(i)));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 인증/TLS 없이 EHLO, MAIL, RCPT, DATA, QUIT만 처리하는 로컬 SMTP 서버
+     */
+    private static final class LocalSmtpServer implements Closeable {
+
+        private final ServerSocket serverSocket;
+        private final List<byte[]> received = new CopyOnWriteArrayList<>();
+        private volatile boolean rejectRecipients;
+
+        private LocalSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(this::serve, "local-smtp");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void serve() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    session(socket);
+                } catch (IOException e) {
+                    // 서버 종료 또는 클라이언트 연결 끊김
+                }
+            }
+        }
+
+        private void session(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+            reply(out, "220 localhost ESMTP");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("RCPT TO")) {
+                    reply(out, rejectRecipients ? "550 mailbox unavailable" : "250 OK");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    received.add(readData(in));
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    // MAIL FROM, RSET, NOOP
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private byte[] readData(BufferedReader in) throws IOException {
+            StringBuilder data = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null && !line.equals(".")) {
+                // 점으로 시작하는 줄은 클라이언트가 점을 하나 더 붙여 보냄
+                data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+            }
+            return data.toString().getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        private void reply(Writer out, String response) throws IOException {
+            out.write(response + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
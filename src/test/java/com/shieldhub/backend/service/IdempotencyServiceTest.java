@@ -0,0 +1,203 @@
+package com.shieldhub.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shieldhub.backend.exception.IdempotencyConflictException;
+import com.shieldhub.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Idempotency-Key 처리 (서버 두 대가 로컬 인메모리 DB 하나를 공유하는 구성으로 재현)
+ */
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "analysis.start";
+    private static final int USER_ID = 7;
+
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyService serverA;
+    private IdempotencyService serverB;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotency-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE IdempotencyKeys (
+                    scope           VARCHAR(50)                        NOT NULL,
+                    user_id         INT                                NOT NULL,
+                    idempotency_key VARCHAR(255)                       NOT NULL,
+                    fingerprint     CHAR(64)                           NOT NULL,
+                    claim_token     CHAR(36)                           NOT NULL,
+                    status          ENUM ('IN_PROGRESS', 'COMPLETED') NOT NULL,
+                    response        LONGTEXT,
+                    expires_at      DATETIME(6)                        NOT NULL,
+                    created_at      DATETIME(6)                        NOT NULL,
+                    PRIMARY KEY (scope, user_id, idempotency_key)
+                )""");
+        serverA = service();
+        serverB = service();
+    }
+
+    @Test
+    void retryOnAnotherServerReplaysStoredResponse() {
+        IdempotencyService.Outcome<Map<String, Object>> first =
+                serverA.execute(SCOPE, USER_ID, "key-1", "https://example.com", this::submit);
+        IdempotencyService.Outcome<Map<String, Object>> retry =
+                serverB.execute(SCOPE, USER_ID, "key-1", "https://example.com", this::submit);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.value()).isEqualTo(first.value());
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void sameKeyWithDifferentRequestIsRejected() {
+        serverA.execute(SCOPE, USER_ID, "key-1", "https://example.com", this::submit);
+
+        assertThatThrownBy(() -> serverB.execute(SCOPE, USER_ID, "key-1", "https://other.example.com", this::submit))
+                .isInstanceOfSatisfying(IdempotencyConflictException.class,
+                        e -> assertThat(e.isInProgress()).isFalse());
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retryWaitsForInFlightRequestOnAnotherServer() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyService.Outcome<Map<String, Object>>> first = CompletableFuture.supplyAsync(() ->
+                serverA.execute(SCOPE, USER_ID, "key-1", "https://example.com", () -> {
+                    started.countDown();
+                    await(release);
+                    return submit();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<IdempotencyService.Outcome<Map<String, Object>>> retry = CompletableFuture.supplyAsync(() ->
+                serverB.execute(SCOPE, USER_ID, "key-1", "https://example.com", this::submit));
+        Thread.sleep(200);
+        release.countDown();
+
+        assertThat(retry.get(5, TimeUnit.SECONDS).replayed()).isTrue();
+        assertThat(retry.get().value()).isEqualTo(first.get(5, TimeUnit.SECONDS).value());
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retryGivesUpWithConflictWhileStillInProgress() throws Exception {
+        ReflectionTestUtils.setField(serverB, "inFlightWaitMs", 200L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<?> first = CompletableFuture.runAsync(() ->
+                serverA.execute(SCOPE, USER_ID, "key-1", "https://example.com", () -> {
+                    started.countDown();
+                    await(release);
+                    return submit();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> serverB.execute(SCOPE, USER_ID, "key-1", "https://example.com", this::submit))
+                .isInstanceOfSatisfying(IdempotencyConflictException.class,
+                        e -> assertThat(e.isInProgress()).isTrue());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRequestIsNotStoredSoRetryRunsAgain() {
+        assertThatThrownBy(() -> serverA.execute(SCOPE, USER_ID, "key-1", "https://example.com", () -> {
+            throw new IllegalStateException("scanner down");
+        })).hasMessage("scanner down");
+
+        IdempotencyService.Outcome<Map<String, Object>> retry =
+                serverB.execute(SCOPE, USER_ID, "key-1", "https://example.com", this::submit);
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void claimLeftByCrashedServerIsTakenOverAfterLease() {
+        // 선점 후 결과를 남기지 못하고 죽은 서버의 행 (선점 시간 만료)
+        jdbcTemplate.update("INSERT INTO IdempotencyKeys (scope, user_id, idempotency_key, fingerprint, claim_token, " +
+                        "status, expires_at, created_at) VALUES (?, ?, ?, ?, ?, 'IN_PROGRESS', ?, ?)",
+                SCOPE, USER_ID, "key-1", "0".repeat(64), UUID.randomUUID().toString(),
+                LocalDateTime.now().minusSeconds(1), LocalDateTime.now().minusMinutes(10));
+
+        IdempotencyService.Outcome<Map<String, Object>> retry =
+                serverB.execute(SCOPE, USER_ID, "key-1", "https://example.com", this::submit);
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void perUserLimitIsSharedAcrossServers() {
+        ReflectionTestUtils.setField(serverA, "maxEntriesPerUser", 2);
+        ReflectionTestUtils.setField(serverB, "maxEntriesPerUser", 2);
+        serverA.execute(SCOPE, USER_ID, "key-1", "https://example.com", this::submit);
+        serverB.execute(SCOPE, USER_ID, "key-2", "https://example.com", this::submit);
+
+        assertThatThrownBy(() -> serverA.execute(SCOPE, USER_ID, "key-3", "https://example.com", this::submit))
+                .isInstanceOf(TooManyRequestsException.class);
+        // 보관 중인 키의 재시도는 한도와 관계없이 응답
+        assertThat(serverA.execute(SCOPE, USER_ID, "key-2", "https://example.com", this::submit).replayed())
+                .isTrue();
+    }
+
+    @Test
+    void sweepRemovesOnlyExpiredKeys() {
+        serverA.execute(SCOPE, USER_ID, "key-1", "https://example.com", this::submit);
+        serverA.execute(SCOPE, USER_ID, "key-2", "https://example.com", this::submit);
+        jdbcTemplate.update("UPDATE IdempotencyKeys SET expires_at = ? WHERE idempotency_key = 'key-1'",
+                LocalDateTime.now().minusSeconds(1));
+
+        serverB.evictExpired();
+
+        assertThat(jdbcTemplate.queryForList("SELECT idempotency_key FROM IdempotencyKeys", String.class))
+                .containsExactly("key-2");
+    }
+
+    private Map<String, Object> submit() {
+        int analysisId = 100 + executions.incrementAndGet();
+        return Map.of("success", true, "analysisId", analysisId, "status", "PENDING");
+    }
+
+    private IdempotencyService service() {
+        IdempotencyService service = new IdempotencyService(jdbcTemplate, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "ttlMinutes", 1440L);
+        ReflectionTestUtils.setField(service, "maxEntriesPerUser", 100);
+        ReflectionTestUtils.setField(service, "inFlightWaitMs", 5000L);
+        ReflectionTestUtils.setField(service, "inProgressLeaseMs", 600_000L);
+        ReflectionTestUtils.setField(service, "sweepBatchSize", 1000);
+        return service;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.shieldhub.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OTP QR 코드 렌더링 지연 시간 비교 (PNG / SVG / 캐시 적중)
+ * JMH 없이 워밍업 후 반복 측정한 간단한 비교이며, 결과(p50 / p99 / 크기)는 표준 출력으로 남긴다.
+ * 절대 시간은 환경마다 다르므로 검증하지 않고, 상대 관계(SVG < PNG, 캐시 적중 < 렌더링)만 확인한다.
+ */
+class OtpQrCodeBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+    private static final String SECRET = "JBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXP";
+
+    private OtpService otpService;
+
+    @BeforeEach
+    void setUp() {
+        otpService = new OtpService();
+        ReflectionTestUtils.setField(otpService, "qrCodeCacheTtlMs", 600_000L);
+    }
+
+    @Test
+    void svgRenderingIsCheaperThanPngAndCacheHitsSkipRendering() throws Exception {
+        Result png = measure(OtpService.QrCodeFormat.PNG, false);
+        Result svg = measure(OtpService.QrCodeFormat.SVG, false);
+        Result cached = measure(OtpService.QrCodeFormat.PNG, true);
+
+        System.out.printf("OTP QR PNG    : p50=%dus p99=%dus size=%dB%n", png.p50Micros(), png.p99Micros(), png.size());
+        System.out.printf("OTP QR SVG    : p50=%dus p99=%dus size=%dB%n", svg.p50Micros(), svg.p99Micros(), svg.size());
+        System.out.printf("OTP QR cached : p50=%dus p99=%dus%n", cached.p50Micros(), cached.p99Micros());
+
+        assertThat(new String(otpService.getQrCode("bench", SECRET, OtpService.QrCodeFormat.SVG),
+                StandardCharsets.UTF_8)).startsWith("<svg");
+        assertThat(svg.p50Micros()).isLessThan(png.p50Micros());
+        assertThat(cached.p50Micros()).isLessThan(svg.p50Micros());
+    }
+
+    // cacheHit=false면 매번 다른 사용자로 조회해 캐시를 거치지 않고 렌더링
+    private Result measure(OtpService.QrCodeFormat format, boolean cacheHit) throws Exception {
+        long[] nanos = new long[ITERATIONS];
+        int size = 0;
+        for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+            String username = cacheHit ? "cached-user" : format + "-user-" + i;
+            long start = System.nanoTime();
+            byte[] image = otpService.getQrCode(username, SECRET, format);
+            long elapsed = System.nanoTime() - start;
+            if (i >= WARMUP) {
+                nanos[i - WARMUP] = elapsed;
+                size = image.length;
+            }
+            if (!cacheHit) {
+                otpService.evictQrCode(username);
+            }
+        }
+        Arrays.sort(nanos);
+        return new Result(nanos[ITERATIONS / 2] / 1000, nanos[(int) (ITERATIONS * 0.99) - 1] / 1000, size);
+    }
+
+    private record Result(long p50Micros, long p99Micros, int size) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.shieldhub.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shieldhub.backend.config.AppConfig;
+import com.shieldhub.backend.dto.response.FlaskAnalysisResponse;
+import com.shieldhub.backend.exception.ScannerUnavailableException;
+import com.shieldhub.backend.util.CircuitBreaker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 스캐너 클라이언트 서킷 브레이커 / 제한 시간 (로컬 mock 스캐너에 실제 HTTP 요청)
+ */
+class ScannerClientTest {
+
+    private static final int FAILURE_THRESHOLD = 2;
+    private static final long OPEN_DURATION_MS = 300;
+    private static final long DEADLINE_MS = 500;
+
+    private static final String OK_BODY = """
+            {"success": true, "url": "https://example.com", "vulnerability_count": 1,
+             "vulnerabilities": [{"type": "XSS", "severity": "HIGH", "pattern": "<script>", "details": "q"}]}
+            """;
+
+    private HttpServer scanner;
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicLong delayMs = new AtomicLong();
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private CloseableHttpClient httpClient;
+    private SimpleMeterRegistry meterRegistry;
+    private ScannerClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        scanner = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        scanner.createContext("/api/analyze", this::handle);
+        scanner.setExecutor(Executors.newCachedThreadPool());
+        scanner.start();
+
+        // 운영과 같은 구성의 클라이언트 (자동 재시도 없음)
+        AppConfig appConfig = new AppConfig();
+        ReflectionTestUtils.setField(appConfig, "maxConnections", 10);
+        ReflectionTestUtils.setField(appConfig, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(appConfig, "readTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(appConfig, "poolAcquireTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(appConfig, "keepAliveMs", 30000L);
+        httpClient = appConfig.scannerHttpClient();
+        meterRegistry = new SimpleMeterRegistry();
+        client = new ScannerClient(httpClient, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(client, "flaskServerUrl",
+                "http://127.0.0.1:" + scanner.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "deadlineMs", DEADLINE_MS);
+        ReflectionTestUtils.setField(client, "maxConcurrentScans", 4);
+        ReflectionTestUtils.setField(client, "bulkheadWaitMs", 100L);
+        ReflectionTestUtils.setField(client, "failureThreshold", FAILURE_THRESHOLD);
+        ReflectionTestUtils.setField(client, "openDurationMs", OPEN_DURATION_MS);
+        ReflectionTestUtils.setField(client, "hedgeMinDelayMs", 2000L);
+        ReflectionTestUtils.setField(client, "hedgeMinSamples", 20);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.shutdown();
+        httpClient.close();
+        scanner.stop(0);
+    }
+
+    @Test
+    void serverErrorsOpenCircuitThenHalfOpenTrialClosesIt() throws InterruptedException {
+        status.set(500);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> client.analyze("https://example.com"))
+                    .isInstanceOf(ScannerUnavailableException.class)
+                    .hasMessage("분석 서버 오류 (HTTP 500)");
+        }
+        assertThat(hits.get()).isEqualTo(FAILURE_THRESHOLD);
+        assertThat(circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // OPEN 동안은 스캐너에 요청하지 않고 즉시 실패
+        int hitsWhenOpened = hits.get();
+        assertThatThrownBy(() -> client.analyze("https://example.com"))
+                .isInstanceOf(ScannerUnavailableException.class);
+        assertThat(hits.get()).isEqualTo(hitsWhenOpened);
+
+        // 대기 시간 후 시험 요청 1건이 성공하면 CLOSED
+        Thread.sleep(OPEN_DURATION_MS + 50);
+        status.set(200);
+        FlaskAnalysisResponse response = client.analyze("https://example.com");
+
+        assertThat(response.getVulnerabilities()).hasSize(1);
+        assertThat(hits.get()).isEqualTo(hitsWhenOpened + 1);
+        assertThat(circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedHalfOpenTrialReopensCircuit() throws InterruptedException {
+        status.set(503);
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> client.analyze("https://example.com"))
+                    .isInstanceOf(ScannerUnavailableException.class)
+                    .hasMessage("분석 서버 오류 (HTTP 503)");
+        }
+        // 503은 HTTP 클라이언트가 다시 보내지 않음 (요청 1건 = 스캐너 호출 1건)
+        assertThat(hits.get()).isEqualTo(FAILURE_THRESHOLD);
+        Thread.sleep(OPEN_DURATION_MS + 50);
+
+        assertThatThrownBy(() -> client.analyze("https://example.com"))
+                .isInstanceOf(ScannerUnavailableException.class)
+                .hasMessage("분석 서버 오류 (HTTP 503)");
+
+        assertThat(hits.get()).isEqualTo(FAILURE_THRESHOLD + 1);
+        assertThat(circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void tooManyRequestsIsNotResentByHttpClient() {
+        status.set(429);
+
+        assertThatThrownBy(() -> client.analyze("https://example.com"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("429");
+
+        assertThat(hits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenCircuit() {
+        status.set(400);
+        for (int i = 0; i < FAILURE_THRESHOLD + 2; i++) {
+            assertThatThrownBy(() -> client.analyze("not a url"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("400");
+        }
+
+        assertThat(hits.get()).isEqualTo(FAILURE_THRESHOLD + 2);
+        assertThat(circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void deadlineCancelsSlowScanAndCountsAsFailure() {
+        delayMs.set(DEADLINE_MS * 4);
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> client.analyze("https://example.com"))
+                .isInstanceOf(ScannerUnavailableException.class)
+                .hasMessageContaining("시간이 초과");
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(DEADLINE_MS * 3);
+        assertThat(meterRegistry.get("scanner.requests").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+
+        // 연속 제한 시간 초과도 실패로 집계되어 OPEN
+        assertThatThrownBy(() -> client.analyze("https://example.com"))
+                .isInstanceOf(ScannerUnavailableException.class);
+        assertThat(circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private CircuitBreaker.State circuitState() {
+        int ordinal = (int) meterRegistry.get("scanner.circuit.state").gauge().value();
+        return CircuitBreaker.State.values()[ordinal];
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            long delay = delayMs.get();
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            int code = status.get();
+            byte[] body = (code == 200 ? OK_BODY : "{\"success\": false, \"error\": \"HTTP " + code + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(code, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException e) {
+                // 클라이언트가 제한 시간 초과로 연결을 끊음
+            }
+        }
+    }
+}